@@ -1,6 +1,7 @@
 package com.example.njupt_coursetable;
 
 import android.app.Application;
+import android.os.StrictMode;
 
 import com.example.njupt_coursetable.di.AppComponent;
 import com.example.njupt_coursetable.di.AppModule;
@@ -22,6 +23,10 @@ public class NjuptCourseTableApp extends Application {
     public void onCreate() {
         super.onCreate();
         
+        if (BuildConfig.DEBUG) {
+            enableStrictMode();
+        }
+        
         // 初始化依赖注入组件
         appComponent = DaggerAppComponent.builder()
                 .appModule(new AppModule(this))
@@ -29,6 +34,24 @@ public class NjuptCourseTableApp extends Application {
                 .build();
     }
 
+    /**
+     * 调试包开启StrictMode：主线程上的磁盘读写和网络访问、未关闭的数据库游标等资源写入logcat（标签StrictMode）
+     * 只记录日志不崩溃，便于逐个排查
+     */
+    private void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .penaltyLog()
+                .build());
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
+    }
+
     /**
      * 获取应用组件实例
      * @return AppComponent实例
@@ -1,6 +1,7 @@
 package com.example.njupt_coursetable.data.local;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.room.Database;
 import androidx.room.Room;
@@ -8,17 +9,21 @@ import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
 
 import com.example.njupt_coursetable.data.local.dao.CourseDao;
 import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.model.CourseFts;
+import com.example.njupt_coursetable.utils.TimeUtils;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
 
 /**
  * 应用数据库类
  * 使用Room持久化库创建和管理数据库
  */
 @Database(
-    entities = {Course.class},
-    version = 4,
+    entities = {Course.class, CourseFts.class},
+    version = 6,
     exportSchema = false
 )
 @TypeConverters({Converters.class})
@@ -116,6 +121,67 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    /**
+     * 数据库迁移策略
+     * 从版本4到5的迁移：新增courses的全文索引courses_fts及同步触发器，并为已有课程建立索引
+     * 建表和触发器语句与Room为CourseFts生成的一致，否则打开数据库时校验失败
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `courses_fts` USING FTS4(" +
+                    "`courseName` TEXT, `location` TEXT, `teacherName` TEXT, content=`courses`)");
+            
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_courses_fts_BEFORE_UPDATE " +
+                    "BEFORE UPDATE ON `courses` BEGIN DELETE FROM `courses_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_courses_fts_BEFORE_DELETE " +
+                    "BEFORE DELETE ON `courses` BEGIN DELETE FROM `courses_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_courses_fts_AFTER_UPDATE " +
+                    "AFTER UPDATE ON `courses` BEGIN INSERT INTO `courses_fts`(`docid`, `courseName`, `location`, `teacherName`) " +
+                    "VALUES (NEW.`rowid`, NEW.`courseName`, NEW.`location`, NEW.`teacherName`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_courses_fts_AFTER_INSERT " +
+                    "AFTER INSERT ON `courses` BEGIN INSERT INTO `courses_fts`(`docid`, `courseName`, `location`, `teacherName`) " +
+                    "VALUES (NEW.`rowid`, NEW.`courseName`, NEW.`location`, NEW.`teacherName`); END");
+            
+            // 为迁移前已有的课程建立索引
+            database.execSQL("INSERT INTO `courses_fts`(`courses_fts`) VALUES('rebuild')");
+        }
+    };
+
+    /**
+     * 数据库迁移策略
+     * 从版本5到6的迁移：courses新增周次位图weekMask、星期序号dayIndex、开始节次startSlot及其索引，
+     * 并按已有课程的上课周数、星期和时间段回填；索引名和列顺序与Room为Course生成的一致
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `courses` ADD COLUMN `weekMask` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE `courses` ADD COLUMN `dayIndex` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE `courses` ADD COLUMN `startSlot` INTEGER NOT NULL DEFAULT 0");
+            
+            // 周数解析规则在Java中实现，逐行计算后回填
+            SupportSQLiteStatement update = database.compileStatement(
+                    "UPDATE `courses` SET `weekMask` = ?, `dayIndex` = ?, `startSlot` = ? WHERE `id` = ?");
+            try (Cursor cursor = database.query(
+                    "SELECT `id`, `weekRange`, `weekType`, `dayOfWeek`, `timeSlot` FROM `courses`")) {
+                while (cursor.moveToNext()) {
+                    update.bindLong(1, WeekRangeUtils.toWeekMask(cursor.getString(1), cursor.getString(2)));
+                    update.bindLong(2, TimeUtils.getDayIndex(cursor.getString(3)));
+                    update.bindLong(3, TimeUtils.getStartSection(cursor.getString(4)));
+                    update.bindLong(4, cursor.getLong(0));
+                    update.executeUpdateDelete();
+                    update.clearBindings();
+                }
+            }
+            
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_courses_dayIndex_startSlot_weekMask` " +
+                    "ON `courses` (`dayIndex`, `startSlot`, `weekMask`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_courses_shouldReminder_dayIndex_startSlot` " +
+                    "ON `courses` (`shouldReminder`, `dayIndex`, `startSlot`)");
+        }
+    };
+
     /**
      * 构建数据库实例
      * @param context 应用上下文
@@ -134,7 +200,7 @@ public abstract class AppDatabase extends RoomDatabase {
                 // 数据库创建时的回调，可以在这里添加初始数据
             }
         })
-        .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+        .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6)
         .fallbackToDestructiveMigration() // 如果迁移失败，则重建数据库
         .build();
     }
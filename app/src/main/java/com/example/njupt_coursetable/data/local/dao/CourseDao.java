@@ -5,6 +5,7 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
+import androidx.room.Upsert;
 import androidx.room.Delete;
 
 import com.example.njupt_coursetable.data.model.Course;
@@ -34,6 +35,14 @@ public interface CourseDao {
     @Insert
     long[] insertAll(Course... courses);
 
+    /**
+     * 插入或更新多个课程（按ID更新，用于增量同步）
+     * 已存在的课程走UPDATE而不是REPLACE：REPLACE删除旧行时不触发删除触发器，全文索引中会留下旧记录
+     * @param courses 要写入的课程列表
+     */
+    @Upsert
+    void upsertAll(List<Course> courses);
+
     /**
      * 更新课程信息
      * @param course 要更新的课程对象
@@ -58,6 +67,14 @@ public interface CourseDao {
     @Query("DELETE FROM courses WHERE id = :courseId")
     int deleteById(long courseId);
 
+    /**
+     * 根据ID批量删除课程
+     * @param courseIds 要删除的课程ID列表，单次不超过SQLite的参数上限
+     * @return 受影响的行数
+     */
+    @Query("DELETE FROM courses WHERE id IN (:courseIds)")
+    int deleteByIds(List<Long> courseIds);
+
     /**
      * 删除所有课程
      * @return 受影响的行数
@@ -66,19 +83,38 @@ public interface CourseDao {
     int deleteAllCourses();
 
     /**
-     * 获取所有课程
+     * 获取所有课程，按星期和开始节次排序
+     * 按(dayIndex, startSlot, weekMask)索引的顺序读出，不需要额外排序
      * @return 所有课程的LiveData列表，用于观察数据变化
      */
-    @Query("SELECT * FROM courses ORDER BY dayOfWeek, timeSlot")
+    @Query("SELECT * FROM courses ORDER BY dayIndex, startSlot")
     LiveData<List<Course>> getAllCourses();
 
     /**
      * 获取所有课程（非LiveData）
      * @return 所有课程的列表
      */
-    @Query("SELECT * FROM courses ORDER BY dayOfWeek, timeSlot")
+    @Query("SELECT * FROM courses ORDER BY dayIndex, startSlot")
     List<Course> getAllCoursesSync();
 
+    /**
+     * 获取某周上课的课程，按星期和开始节次排序
+     * 位运算条件无法用索引定位，但weekMask在(dayIndex, startSlot, weekMask)索引中，
+     * 按索引顺序扫描时可直接用索引中的值判断，只回表读取该周有课的行，也不需要额外排序
+     * @param weekBit 该周在周次位图中对应的位，见WeekRangeUtils.weekBit
+     * @return 该周课程的LiveData列表
+     */
+    @Query("SELECT * FROM courses WHERE (weekMask & :weekBit) != 0 ORDER BY dayIndex, startSlot")
+    LiveData<List<Course>> getCoursesByWeek(long weekBit);
+
+    /**
+     * 获取某周上课的课程ID（非LiveData），只读索引不回表
+     * @param weekBit 该周在周次位图中对应的位
+     * @return 课程ID列表
+     */
+    @Query("SELECT id FROM courses WHERE (weekMask & :weekBit) != 0")
+    List<Long> getCourseIdsByWeekSync(long weekBit);
+
     /**
      * 根据ID获取课程（非LiveData）
      * @param courseId 课程ID
@@ -87,19 +123,56 @@ public interface CourseDao {
     @Query("SELECT * FROM courses WHERE id = :courseId")
     Course getCourseByIdSync(long courseId);
     
-    /**
-     * 根据周数获取课程
-     * @param weekNumber 周数，如"1"
-     * @return 包含该周数的课程列表
-     * 注意：使用精确匹配，避免"6"匹配到"16"的问题
-     */
-    @Query("SELECT * FROM courses WHERE weekRange = :weekNumber ORDER BY dayOfWeek, timeSlot")
-    LiveData<List<Course>> getCoursesByWeekNumber(String weekNumber);
-    
     /**
      * 获取所有需要提醒的课程
+     * 走(shouldReminder, dayIndex, startSlot)索引，只读取需要提醒的行且已按上课时间排好序
      * @return 需要提醒的课程列表
      */
-    @Query("SELECT * FROM courses WHERE shouldReminder = 1 ORDER BY dayOfWeek, timeSlot")
+    @Query("SELECT * FROM courses WHERE shouldReminder = 1 ORDER BY dayIndex, startSlot")
     LiveData<List<Course>> getCoursesWithReminder();
-}
\ No newline at end of file
+    
+    /**
+     * 按全文索引搜索课程名、上课地点和老师名字，可同时按星期和周类型筛选
+     * 结果按课程ID顺序返回，不另行排序，取满limit条即停止，匹配很多时也不必读出全部匹配行
+     * @param match FTS4的MATCH表达式，如"数字*" "105*"
+     * @param dayOfWeek 星期，如"周一"，为null时不筛选
+     * @param weekType 周类型，如"单周"，为null时不筛选
+     * @param limit 最多返回的条数
+     * @return 匹配的课程列表
+     */
+    @Query("SELECT courses.* FROM courses JOIN courses_fts ON courses.id = courses_fts.docid " +
+           "WHERE courses_fts MATCH :match " +
+           "AND (:dayOfWeek IS NULL OR courses.dayOfWeek = :dayOfWeek) " +
+           "AND (:weekType IS NULL OR courses.weekType = :weekType) " +
+           "LIMIT :limit")
+    List<Course> searchByFullText(String match, String dayOfWeek, String weekType, int limit);
+    
+    /**
+     * 按子串搜索课程名、上课地点和老师名字，用于全文索引无法匹配的中文词中间的子串
+     * @param pattern LIKE模式，如"%信号%"，其中的%和_需用\转义
+     * @param dayOfWeek 星期，为null时不筛选
+     * @param weekType 周类型，为null时不筛选
+     * @param limit 最多返回的条数
+     * @return 匹配的课程列表
+     */
+    @Query("SELECT * FROM courses " +
+           "WHERE (courseName LIKE :pattern ESCAPE '\\' OR location LIKE :pattern ESCAPE '\\' " +
+           "OR teacherName LIKE :pattern ESCAPE '\\') " +
+           "AND (:dayOfWeek IS NULL OR dayOfWeek = :dayOfWeek) " +
+           "AND (:weekType IS NULL OR weekType = :weekType) " +
+           "LIMIT :limit")
+    List<Course> searchBySubstring(String pattern, String dayOfWeek, String weekType, int limit);
+    
+    /**
+     * 按星期和周类型筛选课程（无搜索文本时使用）
+     * @param dayOfWeek 星期，为null时不筛选
+     * @param weekType 周类型，为null时不筛选
+     * @param limit 最多返回的条数
+     * @return 课程列表
+     */
+    @Query("SELECT * FROM courses " +
+           "WHERE (:dayOfWeek IS NULL OR dayOfWeek = :dayOfWeek) " +
+           "AND (:weekType IS NULL OR weekType = :weekType) " +
+           "LIMIT :limit")
+    List<Course> filterCourses(String dayOfWeek, String weekType, int limit);
+}
@@ -1,18 +1,27 @@
 package com.example.njupt_coursetable.data.model;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
 
+import com.example.njupt_coursetable.utils.TimeUtils;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
 import com.google.gson.annotations.SerializedName;
 
 /**
  * 课程实体类
  * 包含课程的基本信息：课程名、上课地点、上课周数、老师名字、联系方式、属性、备注等
+ * weekMask、dayIndex、startSlot由上课周数、星期和时间段计算得出，只用于本地查询：
+ * 按周查询和按上课时间排序走(dayIndex, startSlot, weekMask)索引，不必全表扫描再按文本排序
  */
 @Entity(
-    tableName = "courses"
+    tableName = "courses",
+    indices = {
+        @Index({"dayIndex", "startSlot", "weekMask"}),
+        @Index({"shouldReminder", "dayIndex", "startSlot"})
+    }
 )
 public class Course {
 
@@ -42,6 +51,16 @@ public class Course {
     @SerializedName("shouldReminder")
     private boolean shouldReminder; // 是否需要提醒
 
+    // 以下派生字段声明为transient，不参与和服务器之间的JSON序列化；Room仍按@ColumnInfo保存
+    @ColumnInfo(defaultValue = "0")
+    private transient long weekMask;   // 上课周次位图，第n周对应第n-1位
+
+    @ColumnInfo(defaultValue = "0")
+    private transient int dayIndex;    // 星期序号，周一为1，周日为7，无法识别为0
+
+    @ColumnInfo(defaultValue = "0")
+    private transient int startSlot;   // 开始节次，无法识别为0
+
     // 默认构造函数
     public Course() {
     }
@@ -176,6 +195,32 @@ public class Course {
     public void setShouldReminder(boolean shouldReminder) {
         this.shouldReminder = shouldReminder;
     }
+    
+    // 派生字段的getter总是按当前的上课周数、星期和时间段重新计算，
+    // 这样Gson反序列化或修改文本字段后写入数据库的值也是最新的；setter只供Room读取时使用
+    public long getWeekMask() {
+        return WeekRangeUtils.toWeekMask(weekRange, weekType);
+    }
+    
+    public void setWeekMask(long weekMask) {
+        this.weekMask = weekMask;
+    }
+    
+    public int getDayIndex() {
+        return TimeUtils.getDayIndex(dayOfWeek);
+    }
+    
+    public void setDayIndex(int dayIndex) {
+        this.dayIndex = dayIndex;
+    }
+    
+    public int getStartSlot() {
+        return TimeUtils.getStartSection(timeSlot);
+    }
+    
+    public void setStartSlot(int startSlot) {
+        this.startSlot = startSlot;
+    }
 
     // 添加一些便捷方法
     public String getName() {
@@ -0,0 +1,25 @@
+package com.example.njupt_coursetable.data.model;
+
+import java.util.List;
+
+/**
+ * 课程增量同步结果（与后端 CourseChangesDTO 对应）
+ */
+public class CourseChanges {
+    private boolean full;            // true表示全量快照，需先清空本地数据
+    private List<Course> updated;    // 新增或修改过的课程
+    private List<Long> deletedIds;   // 已删除的课程ID
+    private long nextSince;          // 下次同步时传入的since
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public List<Course> getUpdated() { return updated; }
+    public void setUpdated(List<Course> updated) { this.updated = updated; }
+
+    public List<Long> getDeletedIds() { return deletedIds; }
+    public void setDeletedIds(List<Long> deletedIds) { this.deletedIds = deletedIds; }
+
+    public long getNextSince() { return nextSince; }
+    public void setNextSince(long nextSince) { this.nextSince = nextSince; }
+}
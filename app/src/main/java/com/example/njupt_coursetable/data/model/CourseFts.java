@@ -0,0 +1,44 @@
+package com.example.njupt_coursetable.data.model;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+/**
+ * 课程全文索引
+ * FTS4虚拟表，以courses为外部内容表，只索引搜索用到的课程名、上课地点和老师名字；
+ * 数据不重复存储，由Room生成的触发器随courses的增删改同步，docid即课程ID
+ */
+@Fts4(contentEntity = Course.class)
+@Entity(tableName = "courses_fts")
+public class CourseFts {
+
+    private String courseName;    // 课程名
+
+    private String location;      // 上课地点
+
+    private String teacherName;  // 老师名字
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public void setTeacherName(String teacherName) {
+        this.teacherName = teacherName;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.njupt_coursetable.data.model;
+
+import java.util.Map;
+
+/**
+ * 某周的课表网格（与后端 TimetableWeekDTO 对应）
+ * grid[day][slot]为该节次的课程ID，day从0即周一开始，slot从0即第1节开始；
+ * 通常0或1个，时间冲突时有多个。课程详情按ID在courses中查找；
+ * courses是该周的全部课程，星期或节次无法解析、不在网格中的课程也在其中
+ */
+public class TimetableWeek {
+    private int week;                   // 周数
+    private int days;                   // 网格列数，周一到周日
+    private int slots;                  // 网格行数，第1到第10节
+    private long[][][] grid;            // 每个格子的课程ID
+    private Map<Long, Course> courses;  // 该周的全部课程，按ID索引
+
+    public TimetableWeek() {
+    }
+
+    public TimetableWeek(int week, int days, int slots, long[][][] grid, Map<Long, Course> courses) {
+        this.week = week;
+        this.days = days;
+        this.slots = slots;
+        this.grid = grid;
+        this.courses = courses;
+    }
+
+    public int getWeek() { return week; }
+    public void setWeek(int week) { this.week = week; }
+
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    public int getSlots() { return slots; }
+    public void setSlots(int slots) { this.slots = slots; }
+
+    public long[][][] getGrid() { return grid; }
+    public void setGrid(long[][][] grid) { this.grid = grid; }
+
+    public Map<Long, Course> getCourses() { return courses; }
+    public void setCourses(Map<Long, Course> courses) { this.courses = courses; }
+}
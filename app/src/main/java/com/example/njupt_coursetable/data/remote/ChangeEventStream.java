@@ -0,0 +1,184 @@
+package com.example.njupt_coursetable.data.remote;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.util.Set;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.sse.EventSource;
+import okhttp3.sse.EventSourceListener;
+import okhttp3.sse.EventSources;
+
+/**
+ * 课程和提醒变更的推送客户端
+ * 通过SSE订阅服务端的/api/events，收到变更后在主线程回调；
+ * 连接断开后按指数退避自动重连，重连成功后通知调用方重新同步断线期间错过的变化
+ */
+public class ChangeEventStream {
+
+    private static final String TAG = "ChangeEventStream";
+
+    private static final String EVENTS_PATH = "api/events";
+    private static final long MIN_RECONNECT_DELAY_MS = 3_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 60_000;
+
+    /**
+     * 变更监听者，所有回调都在主线程执行
+     */
+    public interface Listener {
+        /**
+         * 课程发生变化
+         * @param weeks 变化涉及的周次
+         */
+        void onCoursesChanged(Set<Integer> weeks);
+
+        /**
+         * 提醒发生变化
+         */
+        void onRemindersChanged();
+
+        /**
+         * 断线重连后或服务端要求时回调，需重新同步全部数据
+         */
+        void onResyncRequired();
+    }
+
+    /**
+     * 服务端推送的事件内容
+     */
+    private static class Change {
+        String type;
+        Long id;
+        Long courseId;
+        Set<Integer> weeks;
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Gson gson = new Gson();
+
+    @Nullable
+    private Listener listener;
+    @Nullable
+    private EventSource eventSource;
+    private boolean connectedBefore = false;
+    private long reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+
+    public ChangeEventStream(Context context) {
+        this.client = RetrofitClient.getEventStreamClient(context);
+        this.baseUrl = RetrofitClient.getClient(context).baseUrl().toString();
+    }
+
+    /**
+     * 开始接收推送，一般在onStart中调用
+     * @param listener 变更监听者
+     */
+    public void start(@NonNull Listener listener) {
+        this.listener = listener;
+        connect();
+    }
+
+    /**
+     * 停止接收推送并断开连接，一般在onStop中调用
+     */
+    public void stop() {
+        listener = null;
+        mainHandler.removeCallbacksAndMessages(null);
+        if (eventSource != null) {
+            eventSource.cancel();
+            eventSource = null;
+        }
+    }
+
+    private void connect() {
+        if (listener == null || eventSource != null) {
+            return;
+        }
+        Request request = new Request.Builder()
+                .url(baseUrl + EVENTS_PATH)
+                .header("Accept", "text/event-stream")
+                .build();
+        eventSource = EventSources.createFactory(client).newEventSource(request, new EventSourceListener() {
+            @Override
+            public void onEvent(@NonNull EventSource source, @Nullable String id, @Nullable String type, @NonNull String data) {
+                mainHandler.post(() -> dispatch(source, type, data));
+            }
+
+            @Override
+            public void onClosed(@NonNull EventSource source) {
+                mainHandler.post(() -> scheduleReconnect(source));
+            }
+
+            @Override
+            public void onFailure(@NonNull EventSource source, @Nullable Throwable t, @Nullable Response response) {
+                Log.w(TAG, "Event stream failed: " + (t != null ? t.getMessage() : response), t);
+                mainHandler.post(() -> scheduleReconnect(source));
+            }
+        });
+    }
+
+    private void dispatch(EventSource source, @Nullable String type, String data) {
+        if (listener == null || source != eventSource || type == null) {
+            return;
+        }
+        switch (type) {
+            case "connected":
+                reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+                // 首次连接前的数据已由页面加载，重连时才需要补齐断线期间的变化
+                if (connectedBefore) {
+                    listener.onResyncRequired();
+                }
+                connectedBefore = true;
+                break;
+            case "course":
+                Change change = parse(data);
+                if (change != null && change.weeks != null) {
+                    listener.onCoursesChanged(change.weeks);
+                }
+                break;
+            case "reminder":
+                listener.onRemindersChanged();
+                break;
+            case "resync":
+                listener.onResyncRequired();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void scheduleReconnect(EventSource source) {
+        if (source != eventSource) {
+            return;
+        }
+        eventSource = null;
+        if (listener == null) {
+            return;
+        }
+        Log.d(TAG, "Reconnecting event stream in " + reconnectDelayMs + " ms");
+        mainHandler.postDelayed(this::connect, reconnectDelayMs);
+        reconnectDelayMs = Math.min(reconnectDelayMs * 2, MAX_RECONNECT_DELAY_MS);
+    }
+
+    @Nullable
+    private Change parse(String data) {
+        try {
+            return gson.fromJson(data, Change.class);
+        } catch (JsonSyntaxException e) {
+            Log.w(TAG, "Malformed change event: " + data, e);
+            return null;
+        }
+    }
+}
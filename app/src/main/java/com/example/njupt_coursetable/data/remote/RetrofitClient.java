@@ -3,11 +3,16 @@ package com.example.njupt_coursetable.data.remote;
 import android.content.Context;
 import android.util.Log;
 
+import com.example.njupt_coursetable.BuildConfig;
 import com.example.njupt_coursetable.data.remote.api.CourseApiService;
 
+import java.io.File;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
@@ -25,6 +30,17 @@ public class RetrofitClient {
      */
     private static final String BASE_URL = "http://10.0.2.2:8081/"; // Android模拟器访问本地服务器的地址
     
+    /**
+     * HTTP缓存目录名与大小
+     */
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024;
+    
+    /**
+     * 推送连接的读超时，服务端每15秒发一次心跳，连续错过几次即认为连接已断开
+     */
+    private static final long EVENT_STREAM_READ_TIMEOUT_SECONDS = 45;
+    
     /**
      * Retrofit实例
      */
@@ -35,6 +51,18 @@ public class RetrofitClient {
      */
     private static OkHttpClient okHttpClient = null;
     
+    /**
+     * 变更推送（SSE）使用的OkHttpClient，与okHttpClient共用连接池
+     */
+    private static OkHttpClient eventStreamClient = null;
+    
+    /**
+     * HTTP响应缓存
+     * 服务端返回ETag和Cache-Control: no-cache，OkHttp会自动带If-None-Match重新验证，
+     * 收到304时直接使用缓存的响应体。同一目录只能有一个Cache实例，因此重建客户端时复用
+     */
+    private static Cache httpCache = null;
+    
     /**
      * 课程API服务实例
      */
@@ -50,6 +78,7 @@ public class RetrofitClient {
             retrofit = new Retrofit.Builder()
                     .baseUrl(BASE_URL)
                     .client(getOkHttpClient(context))
+                    .addConverterFactory(SmileConverterFactory.create()) // Smile响应，其余交给Gson
                     .addConverterFactory(GsonConverterFactory.create())
                     .build();
         }
@@ -67,18 +96,50 @@ public class RetrofitClient {
             HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
             loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
             
-            // 创建OkHttpClient
-            okHttpClient = new OkHttpClient.Builder()
+            if (httpCache == null) {
+                httpCache = new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE);
+            }
+            
+            // 创建OkHttpClient（gzip由OkHttp自动协商和解压）
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .cache(httpCache) // 启用条件请求缓存
+                    .addInterceptor(new StudentIdInterceptor(context)) // 按学生隔离数据
                     .addInterceptor(loggingInterceptor) // 添加日志拦截器
                     .connectTimeout(30, TimeUnit.SECONDS) // 连接超时时间
                     .readTimeout(30, TimeUnit.SECONDS) // 读取超时时间
                     .writeTimeout(30, TimeUnit.SECONDS) // 写入超时时间
-                    .retryOnConnectionFailure(true) // 连接失败时重试
-                    .build();
+                    .retryOnConnectionFailure(true); // 连接失败时重试
+            
+            // 明文地址默认使用HTTP/1.1：h2c没有协商过程，只支持HTTP/1.1的服务器或代理会让所有请求失败。
+            // 以 -Ph2cPriorKnowledge=true 构建时直接以h2c连接，周课程和提醒等并发请求复用同一个连接；
+            // https地址由TLS握手协商HTTP/2，无需设置
+            if (BuildConfig.H2C_PRIOR_KNOWLEDGE && BASE_URL.startsWith("http://")) {
+                builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+            }
+            okHttpClient = builder.build();
         }
         return okHttpClient;
     }
 
+    /**
+     * 获取变更推送使用的OkHttpClient
+     * 去掉BODY级别的日志拦截器（它会等待读完整个响应体）和HTTP缓存，只保留学生ID请求头，
+     * 与普通请求共用连接池，HTTP/2下推送只是同一连接上的一个流
+     * @param context 应用上下文
+     * @return OkHttpClient实例
+     */
+    public static synchronized OkHttpClient getEventStreamClient(Context context) {
+        if (eventStreamClient == null) {
+            OkHttpClient.Builder builder = getOkHttpClient(context).newBuilder()
+                    .cache(null)
+                    .readTimeout(EVENT_STREAM_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            builder.interceptors().clear();
+            builder.addInterceptor(new StudentIdInterceptor(context));
+            eventStreamClient = builder.build();
+        }
+        return eventStreamClient;
+    }
+
     /**
      * 获取课程API服务实例
      * @param context 应用上下文
@@ -101,6 +162,7 @@ public class RetrofitClient {
             // 重置所有实例，以便下次调用时使用新的URL
             retrofit = null;
             okHttpClient = null;
+            eventStreamClient = null;
             courseApiService = null;
         }
     }
@@ -0,0 +1,71 @@
+package com.example.njupt_coursetable.data.remote;
+
+import androidx.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Smile响应转换器
+ * 服务端对课程列表接口支持Smile二进制格式（重复的教师、地点、备注只传一次），
+ * 响应类型为application/x-jackson-smile时用Jackson解析，否则交给后面的Gson转换器。
+ * 请求体仍由Gson编码为JSON
+ */
+public final class SmileConverterFactory extends Converter.Factory {
+
+    /**
+     * Smile的媒体类型，接口上用@Headers(ACCEPT_SMILE)声明优先接收Smile
+     */
+    public static final String MEDIA_TYPE = "application/x-jackson-smile";
+    public static final String ACCEPT_SMILE = "Accept: " + MEDIA_TYPE + ", application/json;q=0.9";
+
+    private static final String SUBTYPE = "x-jackson-smile";
+
+    private final ObjectMapper mapper;
+
+    private SmileConverterFactory(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * 创建转换器工厂
+     * 与Gson一致按字段映射，不使用getName()等别名访问器，忽略客户端没有的字段
+     */
+    public static SmileConverterFactory create() {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return new SmileConverterFactory(mapper);
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        Converter<ResponseBody, ?> fallback = retrofit.nextResponseBodyConverter(this, type, annotations);
+        ObjectReader reader = mapper.readerFor(mapper.getTypeFactory().constructType(type));
+        return body -> {
+            MediaType contentType = body.contentType();
+            if (contentType == null || !SUBTYPE.equals(contentType.subtype())) {
+                return fallback.convert(body);
+            }
+            try {
+                return reader.readValue(body.byteStream());
+            } finally {
+                body.close();
+            }
+        };
+    }
+}
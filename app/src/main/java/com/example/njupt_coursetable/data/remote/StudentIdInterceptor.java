@@ -0,0 +1,76 @@
+package com.example.njupt_coursetable.data.remote;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 为每个请求加上X-Student-Id请求头，设置了签名时再加上X-Student-Token
+ * 服务端按该请求头隔离课程和提醒数据，未设置学生ID时不加请求头，服务端使用默认的共享数据；
+ * 服务端配置了签名密钥时只接受带有匹配签名的学生ID
+ */
+public class StudentIdInterceptor implements Interceptor {
+
+    public static final String HEADER = "X-Student-Id";
+    public static final String TOKEN_HEADER = "X-Student-Token";
+
+    private static final String PREFS_NAME = "CourseTableSettings";
+    private static final String KEY_STUDENT_ID = "student_id";
+    private static final String KEY_STUDENT_TOKEN = "student_token";
+
+    private final SharedPreferences preferences;
+
+    public StudentIdInterceptor(Context context) {
+        this.preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * 获取当前设置的学生ID
+     * @param context 上下文
+     * @return 学生ID，未设置时为null
+     */
+    @Nullable
+    public static String getStudentId(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getString(KEY_STUDENT_ID, null);
+    }
+
+    /**
+     * 设置学生ID及其签名，之后的请求都带上新的请求头
+     * 切换学生后本地数据属于原来的学生，调用方需清空本地课程并重新全量同步
+     * @param context 上下文
+     * @param studentId 学生ID，只能包含字母、数字、下划线和连字符；传null清除
+     * @param token 登录后签发的学生ID签名，服务端未要求签名时传null
+     */
+    public static void setStudentId(Context context, @Nullable String studentId, @Nullable String token) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .edit()
+                .putString(KEY_STUDENT_ID, studentId)
+                .putString(KEY_STUDENT_TOKEN, studentId == null ? null : token)
+                .apply();
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        // SharedPreferences读取的是内存中的副本，每个请求读取一次开销很小
+        String studentId = preferences.getString(KEY_STUDENT_ID, null);
+        if (studentId == null || studentId.isEmpty() || request.header(HEADER) != null) {
+            return chain.proceed(request);
+        }
+        Request.Builder builder = request.newBuilder().header(HEADER, studentId);
+        String token = preferences.getString(KEY_STUDENT_TOKEN, null);
+        if (token != null && !token.isEmpty()) {
+            builder.header(TOKEN_HEADER, token);
+        }
+        return chain.proceed(builder.build());
+    }
+}
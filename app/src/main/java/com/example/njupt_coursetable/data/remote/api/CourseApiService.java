@@ -1,6 +1,9 @@
 package com.example.njupt_coursetable.data.remote.api;
 
 import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.model.CourseChanges;
+import com.example.njupt_coursetable.data.model.TimetableWeek;
+import com.example.njupt_coursetable.data.remote.SmileConverterFactory;
 
 import java.util.List;
 
@@ -8,6 +11,7 @@ import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
@@ -21,23 +25,44 @@ public interface CourseApiService {
 
     /**
      * 获取所有课程
+     * 优先接收Smile二进制格式，体积约为JSON的七分之一
      * @return 所有课程列表的Call对象
      */
+    @Headers(SmileConverterFactory.ACCEPT_SMILE)
     @GET("api/courses")
     Call<List<Course>> getAllCourses();
 
+    /**
+     * 增量同步：获取某时间之后的课程变化
+     * @param since 上次同步返回的nextSince，首次同步传0获取全量快照
+     * @return 课程变化的Call对象
+     */
+    @GET("api/courses/changes")
+    Call<CourseChanges> getCourseChanges(@Query("since") long since);
+
     /**
      * 根据周数查询课程
      * @param weekNumber 周数，如"1"、"2"等
      * @return 对应周数的课程列表的Call对象
      */
+    @Headers(SmileConverterFactory.ACCEPT_SMILE)
     @GET("api/courses/week/{weekNumber}")
     Call<List<Course>> getCoursesByWeek(@Path("weekNumber") String weekNumber);
-    
+
+    /**
+     * 获取某周的课表网格
+     * 网格的每个格子是该节次的课程ID，课程详情在courses中，客户端无需再解析星期和节次
+     * @param weekNumber 周数，如"1"、"2"等
+     * @return 该周课表网格的Call对象
+     */
+    @GET("api/timetable/week/{weekNumber}")
+    Call<TimetableWeek> getTimetableWeek(@Path("weekNumber") String weekNumber);
+
     /**
      * 获取所有需要提醒的课程
      * @return 需要提醒的课程列表的Call对象
      */
+    @Headers(SmileConverterFactory.ACCEPT_SMILE)
     @GET("api/courses/reminders")
     Call<List<Course>> getCoursesWithReminders();
     
@@ -2,6 +2,7 @@ package com.example.njupt_coursetable.data.remote.api;
 
 import com.example.njupt_coursetable.data.model.Reminder;
 import java.util.List;
+import java.util.Map;
 import retrofit2.Call;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
@@ -28,6 +29,27 @@ public interface ReminderApiService {
             @Query("courseId") long courseId,
             @Query("courseDate") String courseDate
     );
-}
 
+    /**
+     * 批量创建提醒
+     * weeks和dates传null时不发送该参数，两者都为null时使用课程自身的上课周次
+     */
+    @POST("api/reminders/batch")
+    Call<List<Reminder>> createReminders(
+            @Query("courseId") long courseId,
+            @Query("weeks") String weeks,
+            @Query("dates") List<String> dates,
+            @Query("startTime") String startTime
+    );
 
+    /**
+     * 批量删除提醒，weeks和dates都为null时删除该课程的全部提醒
+     * 返回 {"deleted": 删除数}
+     */
+    @DELETE("api/reminders/batch")
+    Call<Map<String, Integer>> deleteReminders(
+            @Query("courseId") long courseId,
+            @Query("weeks") String weeks,
+            @Query("dates") List<String> dates
+    );
+}
@@ -1,21 +1,37 @@
 package com.example.njupt_coursetable.data.repository;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.njupt_coursetable.data.local.AppDatabase;
 import com.example.njupt_coursetable.data.local.dao.CourseDao;
 import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.model.CourseChanges;
+import com.example.njupt_coursetable.data.model.TimetableWeek;
 import com.example.njupt_coursetable.data.remote.RetrofitClient;
 import com.example.njupt_coursetable.data.remote.api.CourseApiService;
+import com.example.njupt_coursetable.utils.TimetableUtils;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -28,11 +44,47 @@ import retrofit2.Response;
 public class CourseRepository {
     private static final String TAG = "CourseRepository";
     
+    /**
+     * 增量同步进度的存储位置
+     */
+    private static final String SYNC_PREFS_NAME = "CourseSync";
+    private static final String KEY_LAST_SYNC_SINCE = "last_sync_since";
+    
+    /**
+     * 单条SQL中IN参数的最大个数，低于SQLite的999上限
+     */
+    private static final int MAX_SQL_PARAMS = 500;
+    
+    /**
+     * 同时进行的相邻周预取数，线程池的其余线程留给数据库操作
+     */
+    private static final int MAX_CONCURRENT_PREFETCHES = 2;
+    
+    /**
+     * 最多记录多少个已刷新的周，超出时淘汰最久未访问的周
+     */
+    private static final int FRESH_WEEKS_CAPACITY = 8;
+    
+    /**
+     * 刷新过的周在这段时间内切换过去时不再请求服务器，期间的变化由变更推送使其失效
+     */
+    private static final long FRESH_WEEK_TTL_MS = 5 * 60 * 1000;
+    
+    /**
+     * 搜索最多返回的课程数
+     */
+    private static final int SEARCH_LIMIT = 200;
+    
     /**
      * 单例实例
      */
     private static CourseRepository instance;
     
+    /**
+     * 本地数据库，用于在一个事务中应用增量变化
+     */
+    private final AppDatabase database;
+    
     /**
      * 本地数据访问对象
      */
@@ -48,15 +100,46 @@ public class CourseRepository {
      */
     private final ExecutorService executorService;
     
+    /**
+     * 保存增量同步进度
+     */
+    private final SharedPreferences syncPreferences;
+    
+    /**
+     * 保护freshWeeks和prefetchCalls
+     */
+    private final Object weekLock = new Object();
+    
+    /**
+     * 最近从服务器刷新并写入本地的周及其刷新时间（SystemClock.elapsedRealtime），按访问顺序淘汰
+     */
+    private final Map<Integer, Long> freshWeeks = new LinkedHashMap<Integer, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+            return size() > FRESH_WEEKS_CAPACITY;
+        }
+    };
+    
+    /**
+     * 正在进行的预取请求，按周索引，用于去重和取消
+     */
+    private final Map<Integer, Call<TimetableWeek>> prefetchCalls = new HashMap<>();
+    
+    /**
+     * 最近一次从服务器刷新得到的课表网格，正在显示该周时不等写入本地就先显示
+     */
+    private final MutableLiveData<TimetableWeek> serverTimetable = new MutableLiveData<>();
+    
     /**
      * 私有构造函数
      * @param context 应用上下文
      */
     private CourseRepository(Context context) {
-        AppDatabase database = AppDatabase.getInstance(context);
+        database = AppDatabase.getInstance(context);
         courseDao = database.courseDao();
         courseApiService = RetrofitClient.getCourseApiService(context);
         executorService = Executors.newFixedThreadPool(4);
+        syncPreferences = context.getSharedPreferences(SYNC_PREFS_NAME, Context.MODE_PRIVATE);
     }
     
     /**
@@ -73,6 +156,7 @@ public class CourseRepository {
     
     /**
      * 获取所有课程
+     * Room在后台线程查询，不会阻塞调用线程；需要所有课程时观察该LiveData
      * @return 所有课程的LiveData列表
      */
     public LiveData<List<Course>> getAllCourses() {
@@ -81,20 +165,122 @@ public class CourseRepository {
     }
     
     /**
-     * 同步获取所有课程（用于需要立即获取课程列表的场景）
-     * @return 课程列表
+     * 根据周数获取本地数据库中的课程
+     * 在数据库中按周次位图筛选并按上课时间排序；
+     * 本地课程表变化时（如后台刷新写入）重新发出该周的课程，首次发出时记录从本地读取的耗时
+     * @param weekNumber 周数，如"1"
+     * @return 该周上课的课程列表
      */
-    public List<Course> getAllCoursesSync() {
-        return courseDao.getAllCoursesSync();
+    public LiveData<List<Course>> getCoursesByWeekNumber(String weekNumber) {
+        int week = parseWeek(weekNumber);
+        long start = SystemClock.elapsedRealtime();
+        MediatorLiveData<List<Course>> result = new MediatorLiveData<>();
+        result.addSource(courseDao.getCoursesByWeek(WeekRangeUtils.weekBit(week)), weekCourses -> {
+            if (result.getValue() == null) {
+                Log.d(TAG, "Week " + week + " loaded from local database in "
+                        + (SystemClock.elapsedRealtime() - start) + " ms, courses=" + weekCourses.size());
+            }
+            result.setValue(weekCourses);
+        });
+        return result;
     }
     
     /**
-     * 根据周数获取课程
+     * 获取某周的课表网格
+     * 先用本地数据库中该周的课程排出网格（离线时也能显示），服务器返回该周网格后直接换成服务器的网格；
+     * 服务器数据写入本地后由本地数据再次发出，两者内容一致
      * @param weekNumber 周数，如"1"
-     * @return 包含该周数的课程列表
+     * @return 该周课表网格的LiveData
      */
-    public LiveData<List<Course>> getCoursesByWeekNumber(String weekNumber) {
-        return courseDao.getCoursesByWeekNumber(weekNumber);
+    public LiveData<TimetableWeek> getTimetableWeek(String weekNumber) {
+        int week = parseWeek(weekNumber);
+        MediatorLiveData<TimetableWeek> result = new MediatorLiveData<>();
+        result.addSource(getCoursesByWeekNumber(weekNumber),
+                weekCourses -> result.setValue(TimetableUtils.fromCourses(week, weekCourses)));
+        result.addSource(serverTimetable, timetable -> {
+            if (timetable != null && timetable.getWeek() == week) {
+                result.setValue(timetable);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 在后台线程中搜索本地课程
+     * 搜索文本按全文索引匹配课程名、上课地点和老师名字中以该词开头的词；
+     * 全文索引按空白和标点分词，中文连在一起算一个词，搜索文本含中文且结果不足时再按子串补充
+     * @param text 搜索文本，为空时只按星期和周类型筛选
+     * @param dayOfWeek 星期，如"周一"，为null时不筛选
+     * @param weekType 周类型，如"单周"，为null时不筛选
+     * @param callback 在线程池中回调搜索结果，搜索被取消时不回调
+     * @return 可用于取消本次搜索的Future
+     */
+    public Future<?> searchCourses(String text, String dayOfWeek, String weekType, Consumer<List<Course>> callback) {
+        return executorService.submit(() -> {
+            long start = SystemClock.elapsedRealtime();
+            List<Course> results = searchCoursesSync(text, dayOfWeek, weekType);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Log.d(TAG, "Searched \"" + text + "\" in " + (SystemClock.elapsedRealtime() - start)
+                    + " ms, results=" + results.size());
+            callback.accept(results);
+        });
+    }
+    
+    private List<Course> searchCoursesSync(String text, String dayOfWeek, String weekType) {
+        String trimmed = text == null ? "" : text.trim();
+        if (trimmed.isEmpty()) {
+            return courseDao.filterCourses(dayOfWeek, weekType, SEARCH_LIMIT);
+        }
+        
+        Map<Long, Course> results = new LinkedHashMap<>();
+        String match = toMatchQuery(trimmed);
+        if (!match.isEmpty()) {
+            for (Course course : courseDao.searchByFullText(match, dayOfWeek, weekType, SEARCH_LIMIT)) {
+                results.put(course.getId(), course);
+            }
+        }
+        if ((match.isEmpty() || containsHan(trimmed)) && results.size() < SEARCH_LIMIT
+                && !Thread.currentThread().isInterrupted()) {
+            String pattern = "%" + trimmed.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            for (Course course : courseDao.searchBySubstring(pattern, dayOfWeek, weekType, SEARCH_LIMIT)) {
+                if (results.size() >= SEARCH_LIMIT) {
+                    break;
+                }
+                results.putIfAbsent(course.getId(), course);
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+    
+    /**
+     * 把搜索文本转换为FTS4的MATCH表达式：按空白和标点拆分，每个词加引号并按前缀匹配，多个词同时满足
+     * 引号使AND、OR、NEAR、-等不会被当作运算符
+     */
+    private static String toMatchQuery(String text) {
+        StringBuilder match = new StringBuilder();
+        for (String token : text.split("[\\s\\p{Punct}，。、；：！？（）《》“”‘’]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(token).append("*\"");
+        }
+        return match.toString();
+    }
+    
+    private static boolean containsHan(String text) {
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+                return true;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return false;
     }
     
     /**
@@ -225,31 +411,24 @@ public class CourseRepository {
     
     /**
      * 从服务器同步所有课程数据（新增）
-     * 这个方法会获取服务器上所有课程并更新到本地数据库
+     * 首次同步拉取全量快照，之后只拉取上次同步以来的变化，并在一个事务中写入本地数据库
      * @return 同步结果的LiveData
      */
     public LiveData<Boolean> syncAllCoursesFromServer() {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
+        long since = syncPreferences.getLong(KEY_LAST_SYNC_SINCE, 0);
         
-        courseApiService.getAllCourses().enqueue(new Callback<List<Course>>() {
+        courseApiService.getCourseChanges(since).enqueue(new Callback<CourseChanges>() {
             @Override
-            public void onResponse(Call<List<Course>> call, Response<List<Course>> response) {
+            public void onResponse(Call<CourseChanges> call, Response<CourseChanges> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    List<Course> courses = response.body();
-                    Log.d(TAG, "Fetched " + courses.size() + " courses from server");
+                    CourseChanges changes = response.body();
                     
                     // 在后台线程中更新本地数据库
                     executorService.execute(() -> {
                         try {
-                            // 清空旧数据
-                            courseDao.deleteAllCourses();
-                            
-                            // 插入新数据
-                            if (!courses.isEmpty()) {
-                                courseDao.insertAll(courses.toArray(new Course[0]));
-                                Log.d(TAG, "Successfully synced " + courses.size() + " courses to local database");
-                            }
-                            
+                            applyCourseChanges(changes);
+                            syncPreferences.edit().putLong(KEY_LAST_SYNC_SINCE, changes.getNextSince()).apply();
                             result.postValue(true);
                         } catch (Exception e) {
                             Log.e(TAG, "Error syncing courses to local database", e);
@@ -263,7 +442,7 @@ public class CourseRepository {
             }
             
             @Override
-            public void onFailure(Call<List<Course>> call, Throwable t) {
+            public void onFailure(Call<CourseChanges> call, Throwable t) {
                 Log.e(TAG, "Error syncing courses from server", t);
                 result.postValue(false);
             }
@@ -273,35 +452,248 @@ public class CourseRepository {
     }
     
     /**
-     * 从服务器同步指定周数的课程数据
+     * 在一个事务中把增量变化写入本地数据库
+     * @param changes 服务器返回的课程变化
+     */
+    private void applyCourseChanges(CourseChanges changes) {
+        List<Course> updated = changes.getUpdated() != null ? changes.getUpdated() : new ArrayList<>();
+        List<Long> deletedIds = changes.getDeletedIds() != null ? changes.getDeletedIds() : new ArrayList<>();
+        
+        database.runInTransaction(() -> {
+            if (changes.isFull()) {
+                // 全量快照：清空旧数据
+                courseDao.deleteAllCourses();
+            }
+            if (!updated.isEmpty()) {
+                courseDao.upsertAll(updated);
+            }
+            for (int from = 0; from < deletedIds.size(); from += MAX_SQL_PARAMS) {
+                courseDao.deleteByIds(deletedIds.subList(from, Math.min(from + MAX_SQL_PARAMS, deletedIds.size())));
+            }
+        });
+        Log.d(TAG, "Synced courses: full=" + changes.isFull() + ", updated=" + updated.size()
+                + ", deleted=" + deletedIds.size());
+    }
+    
+    /**
+     * 从服务器获取指定周的课表网格，网格中的课程写入本地数据库
+     * 界面观察getTimetableWeek，先显示本地数据，服务器网格到达后立即更新；请求失败（如离线）时保留本地数据
      * @param weekNumber 周数，如"1"
-     * @return 同步结果的LiveData
+     * @return 刷新结果的LiveData
      */
-    public LiveData<List<Course>> syncCoursesByWeekFromServer(String weekNumber) {
-        MutableLiveData<List<Course>> result = new MutableLiveData<>();
+    public LiveData<Boolean> refreshWeekFromServer(String weekNumber) {
+        MutableLiveData<Boolean> result = new MutableLiveData<>();
+        int week = parseWeek(weekNumber);
+        long start = SystemClock.elapsedRealtime();
         
-        courseApiService.getCoursesByWeek(weekNumber).enqueue(new Callback<List<Course>>() {
+        courseApiService.getTimetableWeek(String.valueOf(week)).enqueue(new Callback<TimetableWeek>() {
             @Override
-            public void onResponse(Call<List<Course>> call, Response<List<Course>> response) {
+            public void onResponse(Call<TimetableWeek> call, Response<TimetableWeek> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    List<Course> courses = response.body();
-                    result.postValue(courses);
+                    TimetableWeek timetable = response.body();
+                    List<Course> courses = coursesOf(timetable);
+                    Log.d(TAG, "Week " + week + " fetched from server in "
+                            + (SystemClock.elapsedRealtime() - start) + " ms, courses=" + courses.size());
+                    serverTimetable.setValue(timetable);
+                    
+                    executorService.execute(() -> {
+                        try {
+                            applyWeekCourses(week, courses);
+                            markWeekFresh(week);
+                            result.postValue(true);
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error writing week courses to local database", e);
+                            result.postValue(false);
+                        }
+                    });
                 } else {
-                    Log.e(TAG, "Failed to sync courses by week from server: " + response.message());
-                    result.postValue(new ArrayList<>());
+                    Log.e(TAG, "Failed to refresh courses by week from server: " + response.message());
+                    result.postValue(false);
                 }
             }
             
             @Override
-            public void onFailure(Call<List<Course>> call, Throwable t) {
-                Log.e(TAG, "Error syncing courses by week from server", t);
-                result.postValue(new ArrayList<>());
+            public void onFailure(Call<TimetableWeek> call, Throwable t) {
+                Log.w(TAG, "Error refreshing courses by week from server, keeping local data", t);
+                result.postValue(false);
             }
         });
         
         return result;
     }
     
+    /**
+     * 本地数据不够新时才从服务器刷新该周
+     * 最近刷新过或正在预取的周直接使用本地数据，预取完成后写入本地，界面自动更新
+     * @param weekNumber 周数，如"1"
+     */
+    public void refreshWeekIfStale(String weekNumber) {
+        int week = parseWeek(weekNumber);
+        synchronized (weekLock) {
+            if (isWeekFresh(week) || prefetchCalls.containsKey(week)) {
+                Log.d(TAG, "Week " + week + " is already fresh or being prefetched, skip refreshing");
+                return;
+            }
+        }
+        refreshWeekFromServer(weekNumber);
+    }
+    
+    /**
+     * 在后台预取某周的前一周和后一周，写入本地数据库
+     * 不再相邻的周的预取会被取消；已刷新过或正在预取的周跳过；同时进行的预取不超过MAX_CONCURRENT_PREFETCHES个
+     * @param weekNumber 当前显示的周数，如"1"
+     */
+    public void prefetchAdjacentWeeks(String weekNumber) {
+        int week = parseWeek(weekNumber);
+        Set<Integer> targets = new HashSet<>();
+        for (int neighbour : new int[]{week - 1, week + 1}) {
+            if (neighbour >= 1 && neighbour <= WeekRangeUtils.MAX_WEEK) {
+                targets.add(neighbour);
+            }
+        }
+        
+        synchronized (weekLock) {
+            Iterator<Map.Entry<Integer, Call<TimetableWeek>>> iterator = prefetchCalls.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, Call<TimetableWeek>> entry = iterator.next();
+                if (!targets.contains(entry.getKey())) {
+                    entry.getValue().cancel();
+                    iterator.remove();
+                }
+            }
+            for (int target : targets) {
+                if (prefetchCalls.size() >= MAX_CONCURRENT_PREFETCHES) {
+                    break;
+                }
+                if (prefetchCalls.containsKey(target) || isWeekFresh(target)) {
+                    continue;
+                }
+                Call<TimetableWeek> call = courseApiService.getTimetableWeek(String.valueOf(target));
+                prefetchCalls.put(target, call);
+                executorService.execute(() -> prefetchWeek(target, call));
+            }
+        }
+    }
+    
+    /**
+     * 取消所有正在进行的预取
+     */
+    public void cancelPrefetch() {
+        synchronized (weekLock) {
+            for (Call<TimetableWeek> call : prefetchCalls.values()) {
+                call.cancel();
+            }
+            prefetchCalls.clear();
+        }
+    }
+    
+    /**
+     * 使某些周的刷新记录失效，下次切换到这些周时重新请求服务器
+     * @param weeks 发生变化的周，为null时全部失效
+     */
+    public void invalidateWeeks(Set<Integer> weeks) {
+        synchronized (weekLock) {
+            if (weeks == null) {
+                freshWeeks.clear();
+            } else {
+                freshWeeks.keySet().removeAll(weeks);
+            }
+        }
+    }
+    
+    /**
+     * 在线程池中同步执行一次预取，请求被取消时不写入本地
+     */
+    private void prefetchWeek(int week, Call<TimetableWeek> call) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            if (call.isCanceled()) {
+                return;
+            }
+            Response<TimetableWeek> response = call.execute();
+            if (call.isCanceled()) {
+                return;
+            }
+            if (response.isSuccessful() && response.body() != null) {
+                List<Course> courses = coursesOf(response.body());
+                applyWeekCourses(week, courses);
+                markWeekFresh(week);
+                Log.d(TAG, "Week " + week + " prefetched in " + (SystemClock.elapsedRealtime() - start)
+                        + " ms, courses=" + courses.size());
+            } else {
+                Log.w(TAG, "Failed to prefetch week " + week + ": " + response.message());
+            }
+        } catch (IOException e) {
+            if (!call.isCanceled()) {
+                Log.w(TAG, "Error prefetching week " + week, e);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error writing prefetched week " + week + " to local database", e);
+        } finally {
+            synchronized (weekLock) {
+                prefetchCalls.remove(week, call);
+            }
+        }
+    }
+    
+    private void markWeekFresh(int week) {
+        synchronized (weekLock) {
+            freshWeeks.put(week, SystemClock.elapsedRealtime());
+        }
+    }
+    
+    /**
+     * 调用方需持有weekLock
+     */
+    private boolean isWeekFresh(int week) {
+        Long refreshedAt = freshWeeks.get(week);
+        return refreshedAt != null && SystemClock.elapsedRealtime() - refreshedAt < FRESH_WEEK_TTL_MS;
+    }
+    
+    /**
+     * 课表网格所在周的全部课程，包括无法排入网格的课程
+     */
+    private static List<Course> coursesOf(TimetableWeek timetable) {
+        Map<Long, Course> courses = timetable.getCourses();
+        return courses != null ? new ArrayList<>(courses.values()) : new ArrayList<>();
+    }
+    
+    /**
+     * 在一个事务中用服务器返回的某周课程覆盖本地该周的课程
+     * 本地该周有、服务器没有的课程已在服务器上删除或改到其他周，一并从本地删除
+     * @param week 周数
+     * @param courses 服务器返回的该周课程
+     */
+    private void applyWeekCourses(int week, List<Course> courses) {
+        Set<Long> serverIds = new HashSet<>();
+        for (Course course : courses) {
+            serverIds.add(course.getId());
+        }
+        
+        database.runInTransaction(() -> {
+            List<Long> staleIds = new ArrayList<>();
+            for (long localId : courseDao.getCourseIdsByWeekSync(WeekRangeUtils.weekBit(week))) {
+                if (!serverIds.contains(localId)) {
+                    staleIds.add(localId);
+                }
+            }
+            if (!courses.isEmpty()) {
+                courseDao.upsertAll(courses);
+            }
+            for (int from = 0; from < staleIds.size(); from += MAX_SQL_PARAMS) {
+                courseDao.deleteByIds(staleIds.subList(from, Math.min(from + MAX_SQL_PARAMS, staleIds.size())));
+            }
+        });
+    }
+    
+    private static int parseWeek(String weekNumber) {
+        try {
+            return Integer.parseInt(weekNumber.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            return 0;
+        }
+    }
+    
     /**
      * 添加课程提醒
      * @param courseId 课程ID
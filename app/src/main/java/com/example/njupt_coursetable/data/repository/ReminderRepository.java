@@ -8,6 +8,7 @@ import com.example.njupt_coursetable.data.remote.RetrofitClient;
 import com.example.njupt_coursetable.data.remote.api.ReminderApiService;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -53,6 +54,32 @@ public class ReminderRepository {
         });
         return ok;
     }
-}
 
+    /**
+     * 一次请求为课程创建多周的提醒
+     * @param weeks 周次，如"1-16"；与dates都为null时使用课程自身的上课周次
+     * @param dates 具体日期列表（yyyy-MM-dd），可为null
+     */
+    public LiveData<Boolean> createReminders(long courseId, String weeks, List<String> dates, String startTime) {
+        MutableLiveData<Boolean> ok = new MutableLiveData<>(false);
+        api.createReminders(courseId, weeks, dates, startTime).enqueue(new Callback<List<Reminder>>() {
+            @Override public void onResponse(Call<List<Reminder>> call, Response<List<Reminder>> resp) { ok.postValue(resp.isSuccessful()); }
+            @Override public void onFailure(Call<List<Reminder>> call, Throwable t) { ok.postValue(false); }
+        });
+        return ok;
+    }
 
+    /**
+     * 一次请求删除课程多周的提醒
+     * @param weeks 周次，如"1-16"；与dates都为null时删除该课程的全部提醒
+     * @param dates 具体日期列表（yyyy-MM-dd），可为null
+     */
+    public LiveData<Boolean> deleteReminders(long courseId, String weeks, List<String> dates) {
+        MutableLiveData<Boolean> ok = new MutableLiveData<>(false);
+        api.deleteReminders(courseId, weeks, dates).enqueue(new Callback<Map<String, Integer>>() {
+            @Override public void onResponse(Call<Map<String, Integer>> call, Response<Map<String, Integer>> resp) { ok.postValue(resp.isSuccessful()); }
+            @Override public void onFailure(Call<Map<String, Integer>> call, Throwable t) { ok.postValue(false); }
+        });
+        return ok;
+    }
+}
@@ -23,6 +23,7 @@ import com.example.njupt_coursetable.NjuptCourseTableApp;
 import com.example.njupt_coursetable.R;
 import com.example.njupt_coursetable.data.local.DataInitializer;
 import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.remote.ChangeEventStream;
 import com.example.njupt_coursetable.databinding.ActivityMainBinding;
 import com.example.njupt_coursetable.di.AppComponent;
 import com.example.njupt_coursetable.ui.adapter.CourseReminderAdapter;
@@ -39,6 +40,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * 主活动类
@@ -76,6 +78,9 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
     
     // 添加课程按钮
     private FloatingActionButton fabAddCourse;
+    
+    // 服务端变更推送，页面可见时保持连接
+    private ChangeEventStream changeEventStream;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -102,6 +107,40 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
         
         // 设置日期显示
         setWeekDateDisplay();
+        
+        changeEventStream = new ChangeEventStream(getApplicationContext());
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // 其他设备或后台修改课程、提醒后由服务端推送，无需轮询
+        changeEventStream.start(new ChangeEventStream.Listener() {
+            @Override
+            public void onCoursesChanged(Set<Integer> weeks) {
+                courseViewModel.invalidateWeeks(weeks);
+                if (weeks.contains(currentWeek)) {
+                    refreshCoursesForCurrentWeek();
+                }
+            }
+
+            @Override
+            public void onRemindersChanged() {
+                refreshUpcomingReminders();
+            }
+
+            @Override
+            public void onResyncRequired() {
+                refreshCoursesForCurrentWeek();
+                refreshUpcomingReminders();
+            }
+        });
+    }
+
+    @Override
+    protected void onStop() {
+        changeEventStream.stop();
+        super.onStop();
     }
 
     /**
@@ -203,7 +242,12 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
      * 初始化观察者
      */
     private void initObservers() {
-        // 移除对本地所有课程的覆盖性观察，避免本地空数据清空服务端按周结果
+        // 观察当前周的课表网格：先显示由本地课程排出的网格，服务器的网格到达后自动更新
+        courseViewModel.getWeekTimetable().observe(this, timetable -> {
+            courseTableView.setTimetable(timetable);
+            // 当前周显示后再预取相邻周，不与当前周争抢网络
+            courseViewModel.prefetchAdjacentWeeks();
+        });
         
         // 观察远程提醒列表变化
         courseViewModel.getUpcomingReminders().observe(this, reminders -> {
@@ -244,11 +288,7 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
      */
     private void syncDataFromServer() {
         // 首次进入默认拉取当前周与提醒
-        courseViewModel.syncCoursesByWeekFromServer(String.valueOf(currentWeek)).observe(this, weekCourses -> {
-            if (weekCourses != null) {
-                courseTableView.setCourses(weekCourses);
-            }
-        });
+        courseViewModel.selectWeek(String.valueOf(currentWeek));
         refreshUpcomingReminders();
     }
 
@@ -339,7 +379,7 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
         // 设置当前选中项
         binding.spinnerWeekSelector.setSelection(currentWeek - 1);
         
-        // 设置选择监听器（切换周时，从服务端拉取该周课程并只显示这周）
+        // 设置选择监听器（切换周时只显示这周的课程）
         binding.spinnerWeekSelector.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
@@ -352,14 +392,8 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
                 // 更新日期显示
                 setWeekDateDisplay();
 
-                // 拉取该周课程并展示
-                courseViewModel.syncCoursesByWeekFromServer(String.valueOf(currentWeek)).observe(MainActivity.this, weekCourses -> {
-                    if (weekCourses != null) {
-                        courseTableView.setCourses(weekCourses);
-                    } else {
-                        courseTableView.setCourses(new ArrayList<>());
-                    }
-                });
+                // 立即显示本地保存的该周课程，同时在后台从服务端刷新
+                courseViewModel.selectWeek(String.valueOf(currentWeek));
             }
             
             @Override
@@ -526,11 +560,7 @@ public class MainActivity extends AppCompatActivity implements OnCourseReminderL
      * 刷新当前周的课程数据
      */
     private void refreshCoursesForCurrentWeek() {
-        courseViewModel.syncCoursesByWeekFromServer(String.valueOf(currentWeek)).observe(this, weekCourses -> {
-            if (weekCourses != null) {
-                courseTableView.setCourses(weekCourses);
-            }
-        });
+        courseViewModel.refreshSelectedWeek();
     }
     
     /**
@@ -1,6 +1,8 @@
 package com.example.njupt_coursetable.ui.activity;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
@@ -18,17 +20,20 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.njupt_coursetable.R;
-import com.example.njupt_coursetable.data.model.Course;
 import com.example.njupt_coursetable.ui.adapter.CourseSearchAdapter;
 import com.example.njupt_coursetable.ui.viewmodel.CourseViewModel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 public class SearchActivity extends AppCompatActivity {
     private static final String TAG = "SearchActivity";
     
+    /**
+     * 输入停顿多久后才搜索，连续输入时只搜索最后一次
+     */
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+    
     private EditText editSearch;
     private ImageView btnBack;
     private ImageView btnClear;
@@ -41,6 +46,9 @@ public class SearchActivity extends AppCompatActivity {
     private CourseViewModel courseViewModel;
     private CourseSearchAdapter searchAdapter;
     
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::performSearch;
+    
     private String[] weekdays = {"全部", "周一", "周二", "周三", "周四", "周五", "周六", "周日"};
     private String[] weekTypes = {"全部", "单周", "双周", "全周"};
     
@@ -112,7 +120,8 @@ public class SearchActivity extends AppCompatActivity {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 btnClear.setVisibility(s.length() > 0 ? View.VISIBLE : View.GONE);
-                performSearch();
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
             }
             
             @Override
@@ -155,98 +164,48 @@ public class SearchActivity extends AppCompatActivity {
      * 加载初始数据
      */
     private void loadInitialData() {
-        // 显示加载状态
-        progressBar.setVisibility(View.VISIBLE);
-        
-        // 获取所有课程
-        courseViewModel.getAllCourses().observe(this, courses -> {
+        // 搜索在后台线程执行，结果回到这里更新列表
+        courseViewModel.getSearchResults().observe(this, results -> {
             progressBar.setVisibility(View.GONE);
             
-            if (courses != null && !courses.isEmpty()) {
-                // 更新搜索结果
-                performSearch();
-            } else {
+            if (results == null || results.isEmpty()) {
                 // 显示空状态
                 textEmptyResults.setVisibility(View.VISIBLE);
                 recyclerViewSearchResults.setVisibility(View.GONE);
+            } else {
+                textEmptyResults.setVisibility(View.GONE);
+                recyclerViewSearchResults.setVisibility(View.VISIBLE);
+                searchAdapter.updateCourses(results);
             }
         });
+        
+        // 显示加载状态
+        progressBar.setVisibility(View.VISIBLE);
+        performSearch();
     }
     
     /**
      * 执行搜索
+     * 查询在后台线程通过全文索引执行，新的搜索会取消尚未完成的旧搜索
      */
     private void performSearch() {
+        searchHandler.removeCallbacks(searchRunnable);
         String searchText = editSearch.getText().toString().trim();
         int weekdayPosition = spinnerWeekday.getSelectedItemPosition();
         int weekTypePosition = spinnerWeekType.getSelectedItemPosition();
         
         Log.d(TAG, "Search: text=" + searchText + ", weekday=" + weekdayPosition + ", weekType=" + weekTypePosition);
         
-        // 获取所有课程
-        List<Course> allCourses = courseViewModel.getAllCoursesSync();
-        if (allCourses == null || allCourses.isEmpty()) {
-            textEmptyResults.setVisibility(View.VISIBLE);
-            recyclerViewSearchResults.setVisibility(View.GONE);
-            return;
-        }
-        
-        // 根据条件筛选课程
-        List<Course> filteredCourses = filterCourses(allCourses, searchText, weekdayPosition, weekTypePosition);
-        
-        // 更新UI
-        if (filteredCourses.isEmpty()) {
-            textEmptyResults.setVisibility(View.VISIBLE);
-            recyclerViewSearchResults.setVisibility(View.GONE);
-        } else {
-            textEmptyResults.setVisibility(View.GONE);
-            recyclerViewSearchResults.setVisibility(View.VISIBLE);
-            searchAdapter.updateCourses(filteredCourses);
-        }
+        // 0表示"全部"，不筛选
+        String weekday = weekdayPosition > 0 ? weekdays[weekdayPosition] : null;
+        String weekType = weekTypePosition > 0 ? weekTypes[weekTypePosition] : null;
+        courseViewModel.searchCourses(searchText, weekday, weekType);
     }
     
-    /**
-     * 根据条件筛选课程
-     */
-    private List<Course> filterCourses(List<Course> courses, String searchText, int weekdayPosition, int weekTypePosition) {
-        List<Course> result = new ArrayList<>();
-        
-        for (Course course : courses) {
-            // 检查星期
-            if (weekdayPosition > 0) { // 0表示"全部"
-                String weekday = weekdays[weekdayPosition];
-                if (!weekday.equals(course.getDayOfWeek())) {
-                    continue;
-                }
-            }
-            
-            // 检查周类型
-            if (weekTypePosition > 0) { // 0表示"全部"
-                String weekType = weekTypes[weekTypePosition];
-                if (!weekType.equals(course.getWeekType())) {
-                    continue;
-                }
-            }
-            
-            // 检查搜索文本
-            if (!searchText.isEmpty()) {
-                String courseName = course.getCourseName().toLowerCase();
-                String location = course.getLocation().toLowerCase();
-                String teacher = course.getTeacher().toLowerCase();
-                String searchLower = searchText.toLowerCase();
-                
-                if (!courseName.contains(searchLower) && 
-                    !location.contains(searchLower) && 
-                    !teacher.contains(searchLower)) {
-                    continue;
-                }
-            }
-            
-            // 所有条件都满足，添加到结果
-            result.add(course);
-        }
-        
-        return result;
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(searchRunnable);
+        super.onDestroy();
     }
     
     /**
@@ -18,13 +18,12 @@ import android.widget.FrameLayout;
 import androidx.annotation.Nullable;
 
 import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.model.TimetableWeek;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import android.graphics.RectF;
 
@@ -79,6 +78,7 @@ public class CourseTableView extends View {
     private int headerHeight; // 头部的实际高度（像素）
     private int padding; // 实际padding（像素）
     private List<Course> courses = new ArrayList<>();
+    private List<CourseCell> courseCells = new ArrayList<>(); // 由课表网格合并出的课程块
     private int currentWeek = 6; // 当前周数
     private int selectedDayOfWeek = -1; // 选中的星期几
     private int selectedTimeSlot = -1; // 选中的时间段
@@ -308,30 +308,11 @@ public class CourseTableView extends View {
         // 清空课程位置映射，重新构建
         courseBoundsMap.clear();
         
-        for (Course course : courses) {
-            // 根据当前周数和课程的周类型过滤课程
-            String weekType = course.getWeekType();
-            if (weekType != null) {
-                if ("单周".equals(weekType) && currentWeek % 2 == 0) {
-                    continue; // 单周课程，但当前是双周，跳过
-                }
-                if ("双周".equals(weekType) && currentWeek % 2 == 1) {
-                    continue; // 双周课程，但当前是单周，跳过
-                }
-                // "全周"课程总是显示
-            }
-            
-            // 获取课程的位置信息
-            int dayOfWeek = getDayOfWeekIndex(course.getDayOfWeek());
-            if (dayOfWeek < 0 || dayOfWeek >= WEEK_DAYS) continue;
-
-            int[] timeSlots = getTimeSlotRange(course.getTimeSlot());
-            if (timeSlots == null || timeSlots.length != 2) continue;
-
-            int startSlot = timeSlots[0] - 1; // 转换为0-based索引
-            int endSlot = timeSlots[1] - 1;
-
-            if (startSlot < 0 || endSlot >= MAX_COURSE_SLOTS) continue;
+        for (CourseCell cell : courseCells) {
+            Course course = cell.course;
+            int dayOfWeek = cell.dayOfWeek;
+            int startSlot = cell.startSlot;
+            int endSlot = cell.endSlot;
 
             // 计算课程的绘制区域
             int left = timeLabelWidth + dayOfWeek * weekDayWidth + padding;
@@ -421,45 +402,6 @@ public class CourseTableView extends View {
         return lines.toArray(new String[0]);
     }
 
-    private int getDayOfWeekIndex(String dayOfWeek) {
-        if (dayOfWeek == null) return -1;
-        for (int i = 0; i < WEEK_DAY_STRINGS.length; i++) {
-            if (dayOfWeek.contains(WEEK_DAY_STRINGS[i])) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    private int[] getTimeSlotRange(String timeSlot) {
-        if (timeSlot == null) return null;
-        try {
-            // 处理格式如"1-2节"的时间
-            Pattern pattern = Pattern.compile("(\\d+)-(\\d+)节");
-            Matcher matcher = pattern.matcher(timeSlot);
-            if (matcher.find()) {
-                int start = Integer.parseInt(matcher.group(1));
-                int end = Integer.parseInt(matcher.group(2));
-                return new int[]{start, end};
-            }
-            // 处理格式如"第1节"的时间
-            pattern = Pattern.compile("第(\\d+)节");
-            matcher = pattern.matcher(timeSlot);
-            if (matcher.find()) {
-                int slot = Integer.parseInt(matcher.group(1));
-                return new int[]{slot, slot};
-            }
-            // 处理格式如"1"的时间
-            if (timeSlot.matches("\\d+")) {
-                int slot = Integer.parseInt(timeSlot);
-                return new int[]{slot, slot};
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
     private int getColorIndexForCourse(String courseName) {
         if (courseName == null || courseName.isEmpty()) {
             return 0;
@@ -592,13 +534,77 @@ public class CourseTableView extends View {
         }
     }
 
-    // 设置课程列表
-    public void setCourses(List<Course> courses) {
-        this.courses = courses != null ? courses : new ArrayList<>();
+    /**
+     * 设置要显示的课表网格
+     * 网格已按周排好每节课的课程ID，这里只把同一门课相邻的节次合并成一个课程块，不再解析星期和节次字符串
+     * @param timetable 某周的课表网格，为null时清空课表
+     */
+    public void setTimetable(TimetableWeek timetable) {
+        Map<Long, Course> byId = timetable != null && timetable.getCourses() != null
+                ? timetable.getCourses() : new HashMap<>();
+        this.courses = new ArrayList<>(byId.values());
         courseNameToColorIndex.clear();
+        courseCells = buildCourseCells(timetable, byId);
         invalidate();
     }
 
+    /**
+     * 按列扫描网格，课程在某节出现而上一节没有时开始一个课程块，一直延伸到它连续出现的最后一节
+     * 时间冲突的格子里有多门课，各自成块并重叠绘制
+     */
+    private static List<CourseCell> buildCourseCells(TimetableWeek timetable, Map<Long, Course> byId) {
+        List<CourseCell> cells = new ArrayList<>();
+        if (timetable == null || timetable.getGrid() == null) {
+            return cells;
+        }
+        long[][][] grid = timetable.getGrid();
+        for (int day = 0; day < Math.min(grid.length, WEEK_DAYS); day++) {
+            long[][] column = grid[day];
+            int slots = Math.min(column.length, MAX_COURSE_SLOTS);
+            for (int slot = 0; slot < slots; slot++) {
+                for (long courseId : column[slot]) {
+                    if (slot > 0 && contains(column[slot - 1], courseId)) {
+                        continue; // 属于上一节开始的课程块
+                    }
+                    Course course = byId.get(courseId);
+                    if (course == null) {
+                        continue;
+                    }
+                    int endSlot = slot;
+                    while (endSlot + 1 < slots && contains(column[endSlot + 1], courseId)) {
+                        endSlot++;
+                    }
+                    cells.add(new CourseCell(course, day, slot, endSlot));
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static boolean contains(long[] cell, long courseId) {
+        for (long id : cell) {
+            if (id == courseId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 课程块在课表中的位置
+    private static final class CourseCell {
+        final Course course;
+        final int dayOfWeek;
+        final int startSlot;
+        final int endSlot;
+
+        CourseCell(Course course, int dayOfWeek, int startSlot, int endSlot) {
+            this.course = course;
+            this.dayOfWeek = dayOfWeek;
+            this.startSlot = startSlot;
+            this.endSlot = endSlot;
+        }
+    }
+
     // 获取课程列表
     public List<Course> getCourses() {
         return courses;
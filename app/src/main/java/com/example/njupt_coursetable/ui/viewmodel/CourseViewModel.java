@@ -1,24 +1,26 @@
 package com.example.njupt_coursetable.ui.viewmodel;
 
 import android.app.Application;
-import android.os.AsyncTask;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Observer;
 
 import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.model.TimetableWeek;
 import com.example.njupt_coursetable.data.repository.CourseRepository;
 import com.example.njupt_coursetable.data.repository.ReminderRepository;
 import com.example.njupt_coursetable.data.model.Reminder;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.FutureTask;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 课程视图模型类
@@ -48,6 +50,36 @@ public class CourseViewModel extends AndroidViewModel {
      * 加载状态的LiveData
      */
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>();
+    
+    /**
+     * 当前选择的周数
+     */
+    private String selectedWeek;
+    
+    /**
+     * 当前选择周的课表网格数据源，切换周时换成新一周的数据源
+     */
+    private LiveData<TimetableWeek> selectedWeekSource;
+    
+    /**
+     * 当前选择周的课表网格
+     */
+    private final MediatorLiveData<TimetableWeek> weekTimetable = new MediatorLiveData<>();
+    
+    /**
+     * 最近一次搜索的结果
+     */
+    private final MutableLiveData<List<Course>> searchResults = new MutableLiveData<>();
+    
+    /**
+     * 搜索序号，只有最新一次搜索的结果会发出
+     */
+    private final AtomicInteger searchSequence = new AtomicInteger();
+    
+    /**
+     * 尚未完成的搜索，发起新搜索时取消
+     */
+    private Future<?> pendingSearch;
 
     /**
      * 构造函数
@@ -69,30 +101,6 @@ public class CourseViewModel extends AndroidViewModel {
         return allCourses;
     }
     
-    /**
-     * 同步获取所有课程（用于需要立即获取课程列表的场景）
-     * @return 课程列表
-     */
-    public List<Course> getAllCoursesSync() {
-        try {
-            // 使用FutureTask在后台线程中执行数据库查询
-            FutureTask<List<Course>> futureTask = new FutureTask<>(() -> {
-                try {
-                    return courseRepository.getAllCoursesSync();
-                } catch (Exception e) {
-                    Log.e(TAG, "Error getting all courses synchronously", e);
-                    return Collections.emptyList();
-                }
-            });
-            
-            AsyncTask.execute(futureTask);
-            return futureTask.get();
-        } catch (Exception e) {
-            Log.e(TAG, "Error executing async task", e);
-            return Collections.emptyList();
-        }
-    }
-    
     /**
      * 根据周数获取课程
      * @param weekNumber 周数，如"1"
@@ -103,10 +111,92 @@ public class CourseViewModel extends AndroidViewModel {
     }
 
     /**
-     * 从服务器按周同步课程并返回结果（仅内存，不写入本地）
+     * 获取当前选择周的课表网格
+     * 先发出由本地数据库课程排出的网格，服务器的网格到达后再发出最新数据
+     * @return 当前选择周课表网格的LiveData
      */
-    public LiveData<List<Course>> syncCoursesByWeekFromServer(String weekNumber) {
-        return courseRepository.syncCoursesByWeekFromServer(weekNumber);
+    public LiveData<TimetableWeek> getWeekTimetable() {
+        return weekTimetable;
+    }
+
+    /**
+     * 切换到某一周：立即显示本地数据，同时在后台从服务器刷新该周
+     * @param weekNumber 周数，如"1"
+     */
+    public void selectWeek(String weekNumber) {
+        if (!weekNumber.equals(selectedWeek)) {
+            selectedWeek = weekNumber;
+            if (selectedWeekSource != null) {
+                weekTimetable.removeSource(selectedWeekSource);
+            }
+            selectedWeekSource = courseRepository.getTimetableWeek(weekNumber);
+            weekTimetable.addSource(selectedWeekSource, weekTimetable::setValue);
+        }
+        courseRepository.refreshWeekIfStale(weekNumber);
+    }
+
+    /**
+     * 从服务器刷新当前选择的周，结果由getWeekTimetable发出
+     * 课程增删改可能涉及其他周，其他周的刷新记录一并失效
+     */
+    public void refreshSelectedWeek() {
+        courseRepository.invalidateWeeks(null);
+        if (selectedWeek != null) {
+            courseRepository.refreshWeekFromServer(selectedWeek);
+        }
+    }
+
+    /**
+     * 当前周显示后调用，在后台预取前后两周
+     */
+    public void prefetchAdjacentWeeks() {
+        if (selectedWeek != null) {
+            courseRepository.prefetchAdjacentWeeks(selectedWeek);
+        }
+    }
+
+    /**
+     * 服务端推送了这些周的课程变化，切换到这些周时重新请求
+     * @param weeks 发生变化的周
+     */
+    public void invalidateWeeks(Set<Integer> weeks) {
+        courseRepository.invalidateWeeks(weeks);
+    }
+
+    /**
+     * 获取搜索结果
+     * @return 最近一次搜索结果的LiveData
+     */
+    public LiveData<List<Course>> getSearchResults() {
+        return searchResults;
+    }
+
+    /**
+     * 在后台搜索本地课程，结果由getSearchResults发出
+     * 尚未完成的旧搜索被取消，即使已经查完，其结果也不会覆盖新搜索的结果
+     * @param text 搜索文本
+     * @param dayOfWeek 星期，为null时不筛选
+     * @param weekType 周类型，为null时不筛选
+     */
+    public void searchCourses(String text, String dayOfWeek, String weekType) {
+        int sequence = searchSequence.incrementAndGet();
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        pendingSearch = courseRepository.searchCourses(text, dayOfWeek, weekType, results -> {
+            if (sequence == searchSequence.get()) {
+                searchResults.postValue(results);
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        courseRepository.cancelPrefetch();
+        super.onCleared();
     }
     
     /**
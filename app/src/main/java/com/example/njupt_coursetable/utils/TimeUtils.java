@@ -1,11 +1,18 @@
 package com.example.njupt_coursetable.utils;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * 时间工具类
  * 用于处理课程时间相关的计算和转换
  */
 public class TimeUtils {
     
+    private static final Pattern FIRST_NUMBER_PATTERN = Pattern.compile("(\\d+)");
+    
+    private static final String[] WEEK_DAY_CHARS = {"一", "二", "三", "四", "五", "六", "日"};
+    
     /**
      * 根据星期几的数字获取对应的字符串
      * @param dayOfWeek 星期几 (0-6, 0=周日, 1=周一, ..., 6=周六)
@@ -170,4 +177,41 @@ public class TimeUtils {
             return "第" + startSection + "-" + endSection + "节";
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 根据星期字符串获取按周一开始排序的序号
+     * @param dayOfWeek 星期字符串，如"周一"、"星期日"
+     * @return 周一为1，周日为7，无法识别时返回0
+     */
+    public static int getDayIndex(String dayOfWeek) {
+        if (dayOfWeek == null) {
+            return 0;
+        }
+        for (int i = 0; i < WEEK_DAY_CHARS.length; i++) {
+            if (dayOfWeek.contains(WEEK_DAY_CHARS[i])) {
+                return i + 1;
+            }
+        }
+        return dayOfWeek.contains("天") ? 7 : 0;
+    }
+    
+    /**
+     * 根据时间段字符串获取开始节次
+     * @param timeSlot 时间段字符串，如"1-2节"、"第3节"
+     * @return 开始节次，无法识别时返回0
+     */
+    public static int getStartSection(String timeSlot) {
+        if (timeSlot == null) {
+            return 0;
+        }
+        Matcher matcher = FIRST_NUMBER_PATTERN.matcher(timeSlot);
+        if (!matcher.find()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.njupt_coursetable.utils;
+
+import com.example.njupt_coursetable.data.model.Course;
+import com.example.njupt_coursetable.data.model.TimetableWeek;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 课表网格工具类
+ * 课表网格通常由服务器的/api/timetable/week接口给出；离线或服务器数据到达之前，
+ * 用本地数据库中该周的课程按与服务器相同的规则排出网格，界面只按网格绘制
+ */
+public final class TimetableUtils {
+
+    /**
+     * 一周的天数
+     */
+    public static final int DAYS = 7;
+
+    /**
+     * 每天的节数
+     */
+    public static final int SLOTS = 10;
+
+    private static final long[] EMPTY_CELL = new long[0];
+
+    private static final String[] WEEKDAYS = {"一", "二", "三", "四", "五", "六", "日"};
+
+    private static final Pattern SLOT_RANGE = Pattern.compile("(\\d+)\\s*[-~—–]\\s*(\\d+)");
+    private static final Pattern SINGLE_SLOT = Pattern.compile("(\\d+)");
+
+    private TimetableUtils() {
+    }
+
+    /**
+     * 用某周的课程排出课表网格
+     * @param week 周数
+     * @param courses 该周上课的课程
+     * @return 网格，星期或节次无法解析的课程不占格子，但仍在courses中
+     */
+    public static TimetableWeek fromCourses(int week, List<Course> courses) {
+        long[][][] grid = new long[DAYS][SLOTS][];
+        for (long[][] day : grid) {
+            Arrays.fill(day, EMPTY_CELL);
+        }
+        LinkedHashMap<Long, Course> byId = new LinkedHashMap<>();
+        if (courses != null) {
+            for (Course course : courses) {
+                byId.put(course.getId(), course);
+                int day = dayIndex(course.getDayOfWeek());
+                int[] slots = slotRange(course.getTimeSlot());
+                if (day < 0 || slots == null) {
+                    continue;
+                }
+                for (int slot = slots[0] - 1; slot < slots[1]; slot++) {
+                    long[] cell = grid[day][slot];
+                    long[] withCourse = Arrays.copyOf(cell, cell.length + 1);
+                    withCourse[cell.length] = course.getId();
+                    grid[day][slot] = withCourse;
+                }
+            }
+        }
+        return new TimetableWeek(week, DAYS, SLOTS, grid, byId);
+    }
+
+    /**
+     * 解析星期几
+     * @param dayOfWeek 如"周一"、"星期三"、"周日"
+     * @return 周一为0，周日为6，无法解析时返回-1
+     */
+    public static int dayIndex(String dayOfWeek) {
+        if (dayOfWeek == null) {
+            return -1;
+        }
+        String day = dayOfWeek.replace("星期", "").replace("周", "").replace("天", "日").trim();
+        for (int i = 0; i < WEEKDAYS.length; i++) {
+            if (WEEKDAYS[i].equals(day)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 解析节次
+     * @param timeSlot 如"1-2节"、"第3节"、"5"
+     * @return {起始节, 结束节}，从1开始且不超过SLOTS；无法解析时返回null
+     */
+    public static int[] slotRange(String timeSlot) {
+        if (timeSlot == null) {
+            return null;
+        }
+        int start;
+        int end;
+        Matcher range = SLOT_RANGE.matcher(timeSlot);
+        if (range.find()) {
+            start = Integer.parseInt(range.group(1));
+            end = Integer.parseInt(range.group(2));
+        } else {
+            Matcher single = SINGLE_SLOT.matcher(timeSlot);
+            if (!single.find()) {
+                return null;
+            }
+            start = Integer.parseInt(single.group(1));
+            end = start;
+        }
+        if (start < 1 || end < start || end > SLOTS) {
+            return null;
+        }
+        return new int[]{start, end};
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.njupt_coursetable.utils;
+
+/**
+ * 上课周数解析工具类
+ * 与服务端的解析规则相同："1,3,5"、"1-16周"、"第6周"等写法，区间写法按周类型过滤单双周
+ */
+public class WeekRangeUtils {
+
+    /**
+     * 支持的最大周次
+     */
+    public static final int MAX_WEEK = 64;
+
+    /**
+     * 判断课程在某周是否上课
+     * @param weekRange 上课周数，如"1-16周"
+     * @param weekType 周类型，如"单周"、"双周"、"全周"，可为null
+     * @param week 周数，从1开始
+     * @return 该周有课时返回true，无法解析时返回false
+     */
+    public static boolean containsWeek(String weekRange, String weekType, int week) {
+        return (toWeekMask(weekRange, weekType) & weekBit(week)) != 0;
+    }
+
+    /**
+     * 把上课周数转换为周次位图，第n周对应第n-1位
+     * @param weekRange 上课周数，如"1-16周"
+     * @param weekType 周类型，如"单周"、"双周"、"全周"，可为null
+     * @return 周次位图，无法解析时返回0
+     */
+    public static long toWeekMask(String weekRange, String weekType) {
+        if (weekRange == null || weekRange.isEmpty()) {
+            return 0;
+        }
+
+        int parity = parityOf(weekType);
+        long mask = 0;
+        for (String token : weekRange.split("[,，、;；\\s]+")) {
+            String cleaned = token.replace("第", "").replace("周", "").trim();
+            if (cleaned.isEmpty()) {
+                continue;
+            }
+
+            String[] bounds = cleaned.split("[-~—–]");
+            if (bounds.length == 1) {
+                mask |= weekBit(parseIntOrZero(bounds[0]));
+            } else if (bounds.length == 2) {
+                int from = Math.max(parseIntOrZero(bounds[0]), 1);
+                int to = Math.min(parseIntOrZero(bounds[1]), MAX_WEEK);
+                for (int week = from; week <= to; week++) {
+                    if (parity < 0 || week % 2 == parity) {
+                        mask |= weekBit(week);
+                    }
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 某周在周次位图中对应的位
+     * @param week 周数，从1开始
+     * @return 只有该位为1的位图，周数超出范围时返回0
+     */
+    public static long weekBit(int week) {
+        if (week < 1 || week > MAX_WEEK) {
+            return 0;
+        }
+        return 1L << (week - 1);
+    }
+
+    /**
+     * 周类型对应的奇偶性
+     * @return 单周返回1，双周返回0，其余返回-1表示不过滤
+     */
+    private static int parityOf(String weekType) {
+        if ("单周".equals(weekType)) {
+            return 1;
+        }
+        if ("双周".equals(weekType)) {
+            return 0;
+        }
+        return -1;
+    }
+
+    private static int parseIntOrZero(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -17,15 +17,23 @@ echo "正在连接数据库..."
 mysql -u $DB_USER -p$DB_PASS $DB_NAME <<EOF
 -- 清空所有数据
 DELETE FROM reminders;
-DELETE FROM courses;
+DELETE FROM enrollments;
+DELETE FROM course_offering_weeks;
+DELETE FROM course_offerings;
+DELETE FROM course_tombstones;
+
+-- 旧版的课程表已迁移到course_offerings和enrollments，一并删除，避免重启后再次迁移
+DROP TABLE IF EXISTS course_weeks;
+DROP TABLE IF EXISTS courses;
 
 -- 重置自增ID
 ALTER TABLE reminders AUTO_INCREMENT = 1;
-ALTER TABLE courses AUTO_INCREMENT = 1;
+ALTER TABLE enrollments AUTO_INCREMENT = 1;
+ALTER TABLE course_offerings AUTO_INCREMENT = 1;
 
 -- 验证清空结果
 SELECT '数据已清空' AS status;
-SELECT COUNT(*) AS remaining_courses FROM courses;
+SELECT COUNT(*) AS remaining_courses FROM enrollments;
 SELECT COUNT(*) AS remaining_reminders FROM reminders;
 EOF
 
@@ -38,7 +46,7 @@ if [ $? -eq 0 ]; then
     echo "   2. DataInitializer会自动检测到数据库为空并重新初始化数据"
     echo ""
     echo "   或者手动验证数据："
-    echo "   mysql -u root -plsj666666 coursetable -e \"SELECT COUNT(*) FROM courses;\""
+    echo "   mysql -u root -plsj666666 coursetable -e \"SELECT COUNT(*) FROM enrollments;\""
 else
     echo ""
     echo "❌ 数据库清空失败，请检查："
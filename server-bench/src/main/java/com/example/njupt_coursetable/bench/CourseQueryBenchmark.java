@@ -0,0 +1,77 @@
+package com.example.njupt_coursetable.bench;
+
+import com.example.njupt_coursetable.cache.WeekCourseCache;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.repository.CourseBulkWriter;
+import com.example.njupt_coursetable.repository.EnrollmentRepository;
+import com.example.njupt_coursetable.tenant.StudentId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnrollmentRepository.findByStudentIdAndWeekNumber在内存H2上的耗时
+ * 除默认学生的示例数据外可再导入extraCourses门属于其他学生的课程（每20门一个学生，s0、s1……），
+ * 按学生查询的耗时应与表的总大小无关
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseQueryBenchmark {
+
+    @Param({"0", "10000"})
+    public int extraCourses;
+
+    @Param({"3"})
+    public int week;
+
+    private ConfigurableApplicationContext context;
+    private EnrollmentRepository enrollmentRepository;
+    private WeekCourseCache weekCourseCache;
+
+    @Setup
+    public void setUp() {
+        context = ServerFixture.start("course_query");
+        enrollmentRepository = context.getBean(EnrollmentRepository.class);
+        weekCourseCache = context.getBean(WeekCourseCache.class);
+
+        if (extraCourses > 0) {
+            CourseBulkWriter writer = context.getBean(CourseBulkWriter.class);
+            List<Course> courses = ServerFixture.sampleCourses(extraCourses, 42);
+            new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+                for (int from = 0; from < courses.size(); from += 20) {
+                    writer.insertBatch("s" + from / 20, courses.subList(from, Math.min(from + 20, courses.size())));
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 按学生和周查询，走enrollments的(student_id, id)索引，连接开课及其周次
+     */
+    @Benchmark
+    public List<Enrollment> findByStudentIdAndWeekNumber() {
+        return enrollmentRepository.findByStudentIdAndWeekNumber(StudentId.DEFAULT, week);
+    }
+
+    /**
+     * 按周缓存命中时的开销，作为对照
+     */
+    @Benchmark
+    public List<Course> weekCached() {
+        return weekCourseCache.getWeek(StudentId.DEFAULT, week);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.njupt_coursetable.bench;
+
+import com.example.njupt_coursetable.model.Course;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List&lt;Course&gt;的Jackson序列化
+ * ObjectMapper按Spring Boot的默认方式构建，与接口返回时的序列化一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseSerializationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<Course> courses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(new TypeReference<List<Course>>() { });
+        courses = ServerFixture.sampleCourses(size, 20250901);
+    }
+
+    /**
+     * 与MVC消息转换器相同的写法，每次按运行时类型查找序列化器
+     */
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(courses);
+    }
+
+    /**
+     * 预先绑定List&lt;Course&gt;类型的ObjectWriter
+     */
+    @Benchmark
+    public byte[] typedWriter() throws Exception {
+        return listWriter.writeValueAsBytes(courses);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.njupt_coursetable.bench;
+
+import com.example.njupt_coursetable.cache.WeekCourseCache;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.repository.EnrollmentRepository;
+import com.example.njupt_coursetable.tenant.StudentId;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 课程列表的传输格式对比：JSON与Smile（共享字符串值）
+ * 数据为服务端启动时写入的18周示例课程，响应体由服务端实际使用的ObjectMapper生成；
+ * 解析一侧模拟Android客户端，JSON用Gson，Smile用客户端SmileConverterFactory相同配置的Jackson。
+ * 两种格式的字节数在Setup时输出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseWireFormatBenchmark {
+
+    /**
+     * all为/api/courses全部课程，week为/api/courses/week/3
+     */
+    @Param({"all", "week"})
+    public String payload;
+
+    private static final Type CLIENT_COURSE_LIST = new TypeToken<List<ClientCourse>>() { }.getType();
+    private static final TypeReference<List<ClientCourse>> CLIENT_COURSE_LIST_REF = new TypeReference<List<ClientCourse>>() { };
+
+    private byte[] json;
+    private byte[] smile;
+    private Gson gson;
+    private ObjectReader jsonReader;
+    private ObjectReader smileReader;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (ConfigurableApplicationContext context = ServerFixture.start("wire_format")) {
+            ObjectMapper jsonMapper = context.getBean(ObjectMapper.class);
+            ObjectMapper smileMapper = context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            List<?> courses;
+            if ("week".equals(payload)) {
+                courses = context.getBean(WeekCourseCache.class).getWeek(StudentId.DEFAULT, 3);
+            } else {
+                courses = context.getBean(EnrollmentRepository.class).findByStudentIdOrderById(StudentId.DEFAULT).stream()
+                        .map(Enrollment::toCourse)
+                        .collect(Collectors.toList());
+            }
+            json = jsonMapper.writeValueAsBytes(courses);
+            smile = smileMapper.writeValueAsBytes(courses);
+            byte[] smileWithoutSharing = new ObjectMapper(new SmileFactory())
+                    .writeValueAsBytes(jsonMapper.readTree(json));
+            System.out.printf("%n[%s] json=%d bytes, smile=%d bytes (%.1f%%), smile without shared values=%d bytes%n",
+                    payload, json.length, smile.length, 100.0 * smile.length / json.length, smileWithoutSharing.length);
+        }
+
+        gson = new Gson();
+        jsonReader = clientMapper(new ObjectMapper()).readerFor(CLIENT_COURSE_LIST_REF);
+        smileReader = clientMapper(new ObjectMapper(new SmileFactory())).readerFor(CLIENT_COURSE_LIST_REF);
+    }
+
+    /**
+     * 客户端当前的解析方式：Gson解析JSON
+     */
+    @Benchmark
+    public List<ClientCourse> gsonJson() {
+        return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), CLIENT_COURSE_LIST);
+    }
+
+    /**
+     * Jackson解析JSON，用于区分格式本身和解析库的差异
+     */
+    @Benchmark
+    public List<ClientCourse> jacksonJson() throws Exception {
+        return jsonReader.readValue(json);
+    }
+
+    /**
+     * Jackson解析Smile
+     */
+    @Benchmark
+    public List<ClientCourse> jacksonSmile() throws Exception {
+        return smileReader.readValue(smile);
+    }
+
+    /**
+     * 与客户端SmileConverterFactory相同：只按字段映射，忽略客户端没有的字段
+     */
+    private static ObjectMapper clientMapper(ObjectMapper mapper) {
+        return mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    }
+
+    /**
+     * 与Android客户端Course相同的字段
+     */
+    public static class ClientCourse {
+        private long id;
+        private String courseName;
+        private String location;
+        private String weekRange;
+        private String dayOfWeek;
+        private String timeSlot;
+        private String teacherName;
+        private String contactInfo;
+        private String property;
+        private String remarks;
+        private String weekType;
+        private boolean shouldReminder;
+    }
+}
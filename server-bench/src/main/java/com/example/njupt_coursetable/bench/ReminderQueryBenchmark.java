@@ -0,0 +1,165 @@
+package com.example.njupt_coursetable.bench;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Reminder;
+import com.example.njupt_coursetable.repository.ReminderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * ReminderController.getUpcoming中ReminderDTO的构造
+ * 提醒分属reminders/100个学生，每个学生4门课、每门课每周一条，日期以今天为中点分布，
+ * 每次轮流查询其中一个学生即将到来的约50条提醒：结果大小不随总数变化，耗时只取决于查询能否按学生定位。
+ * H2对参数和表都没有变化的重复查询直接复用上次的结果，轮换学生才能测到真实的查询。
+ * 对比JPQL构造器表达式一次查询与逐条懒加载选课和开课再映射两种方式，
+ * 以及有无(student_id, course_date, start_time)索引
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReminderQueryBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 5000;
+    private static final int COURSES_PER_STUDENT = 4;
+    private static final int WEEKS_PER_COURSE = 25;
+    private static final int REMINDERS_PER_STUDENT = COURSES_PER_STUDENT * WEEKS_PER_COURSE;
+    private static final String STUDENT_INDEX = "idx_reminders_student_course_date";
+    private static final int QUERIED_STUDENTS = 64;
+
+    @Param({"1000", "100000", "1000000"})
+    public int reminders;
+
+    /**
+     * 为false时删除(student_id, course_date, start_time)索引，作为对照
+     */
+    @Param({"true", "false"})
+    public boolean studentIndex;
+
+    private ConfigurableApplicationContext context;
+    private ReminderRepository reminderRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private LocalDate today;
+    private String[] queriedStudents;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = ServerFixture.start("reminder_query");
+        reminderRepository = context.getBean(ReminderRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        today = LocalDate.now();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> offeringIds = jdbcTemplate.queryForList("SELECT id FROM course_offerings ORDER BY id", Long.class);
+        int students = Math.max(1, reminders / REMINDERS_PER_STUDENT);
+        // 查询的学生均匀分布在全部学生中
+        queriedStudents = new String[Math.min(students, QUERIED_STUDENTS)];
+        for (int i = 0; i < queriedStudents.length; i++) {
+            queriedStudents[i] = student(i * students / queriedStudents.length);
+        }
+
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int s = 0; s < students; s++) {
+            for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+                rows.add(new Object[]{student(s), offeringIds.get((s + c) % offeringIds.size()), true, System.currentTimeMillis()});
+            }
+            if (rows.size() >= INSERT_BATCH_SIZE || s == students - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO enrollments (student_id, offering_id, should_reminder, updated_at) VALUES (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        // 选课按学生顺序插入，第s个学生的课程ID是列表中的第s*4到s*4+3个
+        List<Long> courseIds = jdbcTemplate.queryForList(
+                "SELECT id FROM enrollments WHERE student_id LIKE 'bench%' ORDER BY id", Long.class);
+        LocalDate first = today.minusWeeks(WEEKS_PER_COURSE / 2);
+        Timestamp createdAt = Timestamp.valueOf(today.atStartOfDay());
+        for (int i = 0; i < students * REMINDERS_PER_STUDENT; i++) {
+            int s = i / REMINDERS_PER_STUDENT;
+            int c = i % COURSES_PER_STUDENT;
+            int week = i % REMINDERS_PER_STUDENT / COURSES_PER_STUDENT;
+            rows.add(new Object[]{
+                    student(s),
+                    courseIds.get(s * COURSES_PER_STUDENT + c),
+                    Date.valueOf(first.plusWeeks(week).plusDays(c)),
+                    Time.valueOf(LocalTime.of(8 + 2 * c, 0)),
+                    createdAt});
+            if (rows.size() == INSERT_BATCH_SIZE || i == students * REMINDERS_PER_STUDENT - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO reminders (student_id, course_id, course_date, start_time, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        if (!studentIndex) {
+            jdbcTemplate.execute("DROP INDEX " + STUDENT_INDEX);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 当前实现：连接选课和开课表，查询时直接构造DTO
+     */
+    @Benchmark
+    public List<ReminderDTO> constructorExpression() {
+        return reminderRepository.findUpcomingDTOs(nextStudent(), today);
+    }
+
+    /**
+     * 先按学生查提醒实体（条件和排序与findUpcomingDTOs相同），再逐条访问懒加载的选课和开课构造DTO
+     */
+    @Benchmark
+    public List<ReminderDTO> entityMapping() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(
+                        "SELECT r FROM Reminder r WHERE r.studentId = :studentId AND r.courseDate >= :date " +
+                                "ORDER BY r.courseDate, r.startTime", Reminder.class)
+                .setParameter("studentId", nextStudent())
+                .setParameter("date", today)
+                .getResultStream()
+                .map(ReminderQueryBenchmark::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    private String nextStudent() {
+        next = (next + 1) % queriedStudents.length;
+        return queriedStudents[next];
+    }
+
+    private static String student(int index) {
+        return String.format("bench%06d", index);
+    }
+
+    private static ReminderDTO toDto(Reminder reminder) {
+        CourseOffering offering = reminder.getEnrollment().getOffering();
+        return new ReminderDTO(reminder.getId(), reminder.getStudentId(), reminder.getEnrollment().getId(),
+                offering.getCourseName(), offering.getLocation(), offering.getDayOfWeek(), offering.getTimeSlot(),
+                reminder.getCourseDate(), reminder.getStartTime());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.njupt_coursetable.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataInitializer首次启动时写入示例课程的耗时
+ * 每次调用前清空课程相关的表，使种子数据逻辑完整执行一遍
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+public class SeedingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private CommandLineRunner seedCourses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServerFixture.start("seeding");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seedCourses = context.getBean("seedCourses", CommandLineRunner.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCourses() {
+        jdbcTemplate.update("DELETE FROM reminders");
+        jdbcTemplate.update("DELETE FROM enrollments");
+        jdbcTemplate.update("DELETE FROM course_offering_weeks");
+        jdbcTemplate.update("DELETE FROM course_offerings");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void seedCourses() throws Exception {
+        seedCourses.run();
+    }
+}
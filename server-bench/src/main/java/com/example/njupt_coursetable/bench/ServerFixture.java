@@ -0,0 +1,69 @@
+package com.example.njupt_coursetable.bench;
+
+import com.example.njupt_coursetable.NjuptCoursetableServerApplication;
+import com.example.njupt_coursetable.model.Course;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试使用的服务端环境
+ * 以内存H2启动完整的Spring上下文（不启动Web服务器），启动时会按DataInitializer写入示例课程
+ */
+final class ServerFixture {
+
+    private static final String[] COURSE_NAMES = {"信号与系统", "数字信号处理", "通信原理", "微机原理与接口技术"};
+    private static final String[] DAYS = {"周一", "周二", "周三", "周四", "周五"};
+    private static final String[] TIME_SLOTS = {"1-2节", "3-4节", "6-7节", "8-9节"};
+
+    private ServerFixture() {
+    }
+
+    /**
+     * 启动服务端上下文
+     * 以命令行参数传入数据源，优先级高于application.properties中的MySQL配置
+     * @param database H2内存库名，不同基准使用不同的库
+     */
+    static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(NjuptCoursetableServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--app.r2dbc.url=r2dbc:h2:mem:///" + database,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.com.example.njupt_coursetable=WARN");
+    }
+
+    /**
+     * 生成与示例数据相似的课程（未保存）
+     */
+    static List<Course> sampleCourses(int count, long seed) {
+        Random random = new Random(seed);
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int from = 1 + random.nextInt(8);
+            Course course = new Course(COURSE_NAMES[random.nextInt(COURSE_NAMES.length)],
+                    "教" + (1 + random.nextInt(4)) + "-" + (100 + random.nextInt(300)),
+                    from + "-" + (from + 8 + random.nextInt(8)) + "周",
+                    DAYS[random.nextInt(DAYS.length)],
+                    TIME_SLOTS[random.nextInt(TIME_SLOTS.length)],
+                    "王建华", "wjh@njupt.edu.cn", "必修", "大三电子信息专业课程");
+            course.setId((long) i + 1);
+            course.setUpdatedAt(System.currentTimeMillis());
+            courses.add(course);
+        }
+        return courses;
+    }
+}
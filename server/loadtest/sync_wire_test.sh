@@ -0,0 +1,64 @@
+#!/bin/bash
+
+# 冷启动同步的传输字节数与耗时对比：HTTP/1.1不压缩 vs HTTP/1.1 gzip vs h2c gzip多路复用
+# 使用方法: ./loadtest/sync_wire_test.sh（服务器需已启动）
+# 依赖: curl 7.66及以上（需支持HTTP/2，curl -V 的Features中含HTTP2）
+#
+# 冷启动同步按App首次打开的请求组成：全量课程快照、18周课程、需提醒课程、即将到来的提醒。
+# HTTP/1.1模式模拟OkHttp默认的每主机最多5个并发连接；h2c模式所有请求复用一个连接。
+# 响应体字节为线上传输的字节（压缩后），连接数为新建TCP连接数。
+# 可通过环境变量调整：BASE_URL=http://localhost:8081  ROUNDS=5
+
+BASE_URL=${BASE_URL:-http://localhost:8081}
+ROUNDS=${ROUNDS:-5}
+WEEKS=18
+
+if ! curl -V | grep -q "HTTP2"; then
+    echo "❌ 错误: 当前curl不支持HTTP/2"
+    exit 1
+fi
+
+if ! curl -s -o /dev/null "$BASE_URL/api/courses/cache/stats"; then
+    echo "❌ 错误: 无法连接到 $BASE_URL，请先启动服务器"
+    exit 1
+fi
+
+URLS=("$BASE_URL/api/courses/changes?since=0" "$BASE_URL/api/courses/reminders" "$BASE_URL/api/reminders/upcoming")
+for week in $(seq 1 $WEEKS); do
+    URLS+=("$BASE_URL/api/courses/week/$week")
+done
+
+# 对每个请求输出: 响应体字节 响应头字节 新建连接数，最后一行输出总耗时
+run_sync() {
+    local start end
+    start=$(date +%s%N)
+    curl -s --parallel "$@" -w "%{size_download} %{size_header} %{num_connects}\n" $(printf -- "-o /dev/null %s " "${URLS[@]}") 2>/dev/null
+    end=$(date +%s%N)
+    echo "elapsed $(( (end - start) / 1000000 ))"
+}
+
+measure() {
+    local name=$1
+    shift
+    run_sync "$@" > /dev/null  # 预热，排除服务端首次加载缓存的耗时
+    local body=0 header=0 connects=0 total_ms=0
+    for round in $(seq 1 $ROUNDS); do
+        while read -r a b c; do
+            if [ "$a" = "elapsed" ]; then
+                total_ms=$((total_ms + b))
+            elif [ "$round" -eq 1 ]; then
+                body=$((body + a)); header=$((header + b)); connects=$((connects + c))
+            fi
+        done < <(run_sync "$@")
+    done
+    printf "%-24s %12s %12s %8s %14s\n" "$name" "$body" "$header" "$connects" "$((total_ms / ROUNDS))"
+}
+
+echo "=========================================="
+echo "冷启动同步: ${#URLS[@]}个请求, $BASE_URL, 每种模式$ROUNDS轮取平均"
+echo "=========================================="
+printf "%-24s %12s %12s %8s %14s\n" "模式" "响应体字节" "响应头字节" "连接数" "平均耗时(ms)"
+measure "HTTP/1.1 不压缩" --http1.1 --parallel-max 5
+measure "HTTP/1.1 gzip" --http1.1 --parallel-max 5 --compressed
+# 用Upgrade方式协商h2c（部分curl版本以prior knowledge复用连接时会出错），首个请求升级后其余请求复用该连接
+measure "h2c gzip 多路复用" --http2 --parallel-max 50 --compressed
@@ -0,0 +1,100 @@
+#!/bin/bash
+
+# 按周查询接口压测脚本：平台线程模式 vs 虚拟线程模式
+# 使用方法: ./loadtest/week_load_test.sh [周数]（在server目录下执行）
+# 依赖: wrk（https://github.com/wg/wrk）、JDK 21及以上
+#
+# 可通过环境变量调整：
+#   JAVA=/path/to/jdk21/bin/java  CONNECTIONS=5000  THREADS=16  DURATION=60s
+#   SERVER_ARGS="--spring.datasource.url=..."   额外传给服务器的参数
+
+WEEK=${1:-3}
+JAVA=${JAVA:-java}
+CONNECTIONS=${CONNECTIONS:-5000}
+THREADS=${THREADS:-16}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-15s}
+PORT=${PORT:-8081}
+URL="http://localhost:$PORT/api/courses/week/$WEEK"
+RESULT_DIR=${RESULT_DIR:-target/loadtest}
+
+# 两种模式使用相同的日志和连接上限，避免SQL日志等因素影响对比
+COMMON_ARGS="--server.port=$PORT --server.tomcat.max-connections=10000 --server.tomcat.accept-count=1000 \
+--spring.jpa.show-sql=false --logging.level.org.springframework.web=INFO --logging.level.com.example.njupt_coursetable=INFO"
+
+echo "=========================================="
+echo "按周查询接口压测: $URL"
+echo "并发连接: $CONNECTIONS, wrk线程: $THREADS, 时长: $DURATION"
+echo "=========================================="
+echo ""
+
+if ! command -v wrk &> /dev/null; then
+    echo "❌ 错误: 未找到wrk，请先安装wrk"
+    exit 1
+fi
+
+JAVA_MAJOR=$("$JAVA" -version 2>&1 | head -1 | sed -E 's/.*version "([0-9]+).*/\1/')
+if [ "$JAVA_MAJOR" -lt 21 ] 2>/dev/null; then
+    echo "❌ 错误: 虚拟线程模式需要JDK 21及以上，当前为 $JAVA_MAJOR，可通过JAVA环境变量指定"
+    exit 1
+fi
+
+# 5000个并发连接需要足够的文件描述符
+ulimit -n 65535 2>/dev/null || echo "⚠️  无法调高文件描述符上限，当前为 $(ulimit -n)"
+
+echo "正在打包服务器..."
+mvn -q -DskipTests package || { echo "❌ 打包失败"; exit 1; }
+JAR=$(ls target/njupt-coursetable-server-*-exec.jar | head -1)
+mkdir -p "$RESULT_DIR"
+
+run_mode() {
+    local mode=$1
+    local profile_args=$2
+    local log="$RESULT_DIR/server-$mode.log"
+
+    echo ""
+    echo "---------- 模式: $mode ----------"
+    "$JAVA" -jar "$JAR" $COMMON_ARGS $profile_args $SERVER_ARGS > "$log" 2>&1 &
+    local pid=$!
+
+    # 等待服务器就绪
+    for i in $(seq 1 120); do
+        if curl -s -o /dev/null "$URL"; then
+            break
+        fi
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "❌ 服务器启动失败，日志见 $log"
+            exit 1
+        fi
+        sleep 1
+    done
+
+    echo "预热 $WARMUP ..."
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" "$URL" > /dev/null
+
+    echo "压测 $DURATION ..."
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "$URL" | tee "$RESULT_DIR/wrk-$mode.txt"
+
+    kill $pid
+    wait $pid 2>/dev/null
+}
+
+run_mode platform ""
+run_mode virtual "--spring.profiles.active=virtual"
+
+# 从wrk输出中提取吞吐量、p99延迟和错误数
+summary() {
+    local file="$RESULT_DIR/wrk-$1.txt"
+    local rps=$(awk '/Requests\/sec/ {print $2}' "$file")
+    local p99=$(awk '$1 == "99%" {print $2}' "$file")
+    local errors=$(awk '/Socket errors/ {print $4 $6 $8 $10}' "$file")
+    printf "%-10s %14s %12s %s\n" "$1" "${rps:--}" "${p99:--}" "${errors:-0}"
+}
+
+echo ""
+echo "=========================================="
+printf "%-10s %14s %12s %s\n" "模式" "Requests/sec" "p99" "Socket errors"
+summary platform
+summary virtual
+echo "=========================================="
+echo "完整结果见 $RESULT_DIR"
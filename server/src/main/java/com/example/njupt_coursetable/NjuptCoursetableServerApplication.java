@@ -2,8 +2,10 @@ package com.example.njupt_coursetable;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC连接池由ReactiveDataConfig创建，自动配置的ConnectionFactory会让DataSource自动配置失效
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class NjuptCoursetableServerApplication {
 
     public static void main(String[] args) {
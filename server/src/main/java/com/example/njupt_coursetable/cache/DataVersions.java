@@ -0,0 +1,159 @@
+package com.example.njupt_coursetable.cache;
+
+import com.example.njupt_coursetable.event.CourseChangedEvent;
+import com.example.njupt_coursetable.event.OfferingChangedEvent;
+import com.example.njupt_coursetable.event.ReminderChangedEvent;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 课程与提醒数据的版本号，按学生分别维护
+ * 每次写入后更新，用作ETag，客户端携带If-None-Match时无需查询数据库即可判断是否变化。
+ * 所有版本号都取自同一个递增时钟：学生的版本记录被淘汰后重新创建时，
+ * 新版本号必然大于之前发出的任何版本号，不会与旧ETag重复。
+ * 课程和开课变更时在WeekCourseCache失效之后才更新版本号，拿到新ETag的请求读到的一定是新数据；
+ * 未指定顺序的监听器（如变更推送）排在两者之后
+ */
+@Component
+public class DataVersions {
+
+    private static final int VERSION_ORDER = WeekCourseCache.EVICTION_ORDER + 1;
+
+    /**
+     * 以启动时间作为时钟初值，避免服务重启后版本号与重启前的ETag重复
+     */
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+
+    @Value("${app.cache.max-students:10000}")
+    private int maxStudents;
+
+    private StudentLruMap<Versions> students;
+
+    @PostConstruct
+    public void init() {
+        students = new StudentLruMap<>(maxStudents);
+    }
+
+    @EventListener
+    @Order(VERSION_ORDER)
+    public void onCourseChanged(CourseChangedEvent event) {
+        bumpCourses(students.get(event.getStudentId()), event.getAffectedWeeks());
+    }
+
+    /**
+     * 开课修改后只更新已保存版本号的学生；没有记录的学生下次访问时新建记录，
+     * 版本号取自时钟，本来就与之前发出的ETag不同，不必为他们创建记录而挤掉活跃学生
+     */
+    @EventListener
+    @Order(VERSION_ORDER)
+    public void onOfferingChanged(OfferingChangedEvent event) {
+        for (String studentId : event.getStudentIds()) {
+            bumpCourses(students.get(studentId), event.getAffectedWeeks());
+        }
+    }
+
+    @EventListener
+    public void onReminderChanged(ReminderChangedEvent event) {
+        Versions versions = students.get(event.getStudentId());
+        if (versions != null) {
+            versions.reminders.set(clock.incrementAndGet());
+        }
+    }
+
+    /**
+     * 全部课程的ETag
+     */
+    public String allCoursesETag(String studentId) {
+        return quote("c" + versions(studentId).courses.get());
+    }
+
+    /**
+     * 某一周课程列表的ETag，只随该周课程的变化而变化
+     */
+    public String weekETag(String studentId, int week) {
+        return quote("w" + week + "-" + weekVersion(studentId, week));
+    }
+
+    /**
+     * 某一周课表网格的ETag，与该周课程列表随同一版本号变化
+     */
+    public String timetableWeekETag(String studentId, int week) {
+        return quote("t" + week + "-" + weekVersion(studentId, week));
+    }
+
+    /**
+     * 需要提醒的课程列表的ETag
+     */
+    public String reminderCoursesETag(String studentId) {
+        return quote("rc" + versions(studentId).courses.get());
+    }
+
+    /**
+     * 即将到来的提醒列表的ETag
+     * 提醒中包含课程信息并按当天日期过滤，因此同时取决于两者的版本和当前日期
+     */
+    public String upcomingRemindersETag(String studentId, LocalDate today) {
+        Versions versions = versions(studentId);
+        return quote("r" + versions.reminders.get() + "-c" + versions.courses.get() + "-" + today);
+    }
+
+    /**
+     * 当前保存了版本号的学生数
+     */
+    public int size() {
+        return students.size();
+    }
+
+    private long weekVersion(String studentId, int week) {
+        Versions versions = versions(studentId);
+        return week >= 1 && week <= WeekRangeUtils.MAX_WEEK ? versions.weeks.get(week) : versions.created;
+    }
+
+    private void bumpCourses(Versions versions, Set<Integer> affectedWeeks) {
+        if (versions == null) {
+            return;
+        }
+        versions.courses.set(clock.incrementAndGet());
+        for (int week : affectedWeeks) {
+            if (week >= 1 && week <= WeekRangeUtils.MAX_WEEK) {
+                versions.weeks.set(week, clock.incrementAndGet());
+            }
+        }
+    }
+
+    private Versions versions(String studentId) {
+        return students.computeIfAbsent(studentId, id -> new Versions(clock.incrementAndGet()));
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * 一个学生的各项版本号，创建时都取同一个初值
+     */
+    private static final class Versions {
+        final long created;
+        final AtomicLong courses;
+        final AtomicLong reminders;
+        final AtomicLongArray weeks = new AtomicLongArray(WeekRangeUtils.MAX_WEEK + 1);
+
+        Versions(long initial) {
+            created = initial;
+            courses = new AtomicLong(initial);
+            reminders = new AtomicLong(initial);
+            for (int week = 0; week < weeks.length(); week++) {
+                weeks.set(week, initial);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.njupt_coursetable.cache;
+
+/**
+ * 选课记录中与学生相关的字段，按周缓存只为每个学生保存这几列，课程详情按开课共用
+ */
+public class EnrollmentRef {
+    public final long id;
+    public final long offeringId;
+    public final boolean shouldReminder;
+    public final Long updatedAt;
+
+    // 供JPQL构造器表达式使用
+    public EnrollmentRef(Long id, Long offeringId, Boolean shouldReminder, Long updatedAt) {
+        this.id = id;
+        this.offeringId = offeringId;
+        this.shouldReminder = shouldReminder;
+        this.updatedAt = updatedAt;
+    }
+}
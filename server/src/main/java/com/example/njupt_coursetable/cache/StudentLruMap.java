@@ -0,0 +1,120 @@
+package com.example.njupt_coursetable.cache;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 按学生ID保存状态的有界表，近似LRU淘汰
+ * 全校学生的数据不可能全部常驻内存，超过容量时淘汰最久未访问的学生，
+ * 被淘汰的学生下次访问时重新加载。
+ * 读写都走ConcurrentHashMap，不同学生的请求之间没有全局锁；每个条目只记录最近访问时间。
+ * 超过容量时由一个线程扫描一遍，一次淘汰超出部分再加容量的1/16，其余线程不等待，
+ * 因此学生数可能短暂略超容量，淘汰的也只是按访问时间近似最久未访问的学生
+ * @param <V> 每个学生的状态
+ */
+class StudentLruMap<V> {
+
+    private final int maxStudents;
+    private final ConcurrentHashMap<String, Node<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    StudentLruMap(int maxStudents) {
+        this.maxStudents = maxStudents;
+    }
+
+    V get(String studentId) {
+        Node<V> node = entries.get(studentId);
+        if (node == null) {
+            return null;
+        }
+        node.touch();
+        return node.value;
+    }
+
+    V computeIfAbsent(String studentId, Function<String, V> factory) {
+        Node<V> node = entries.get(studentId);
+        if (node == null) {
+            node = entries.computeIfAbsent(studentId, id -> new Node<>(factory.apply(id)));
+            if (entries.size() > maxStudents) {
+                evict();
+            }
+        }
+        node.touch();
+        return node.value;
+    }
+
+    void remove(String studentId) {
+        entries.remove(studentId);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 淘汰最久未访问的学生，已有线程在淘汰时直接返回
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int count = entries.size() - maxStudents;
+            if (count <= 0) {
+                return;
+            }
+            count += maxStudents / 16;
+            // 大顶堆只保留访问时间最早的count个；访问时间在扫描时取一次快照，扫描期间的访问不影响堆的顺序
+            PriorityQueue<Candidate<V>> oldest = new PriorityQueue<>(count + 1,
+                    Comparator.comparingLong((Candidate<V> candidate) -> candidate.lastAccess).reversed());
+            for (Map.Entry<String, Node<V>> entry : entries.entrySet()) {
+                oldest.add(new Candidate<>(entry.getKey(), entry.getValue()));
+                if (oldest.size() > count) {
+                    oldest.poll();
+                }
+            }
+            for (Candidate<V> victim : oldest) {
+                // 扫描后又被访问过的学生保留
+                if (victim.node.lastAccess == victim.lastAccess) {
+                    entries.remove(victim.studentId, victim.node);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Node<V> {
+        final V value;
+        volatile long lastAccess;
+
+        Node(V value) {
+            this.value = value;
+            touch();
+        }
+
+        void touch() {
+            lastAccess = System.nanoTime();
+        }
+    }
+
+    private static final class Candidate<V> {
+        final String studentId;
+        final Node<V> node;
+        final long lastAccess;
+
+        Candidate(String studentId, Node<V> node) {
+            this.studentId = studentId;
+            this.node = node;
+            this.lastAccess = node.lastAccess;
+        }
+    }
+}
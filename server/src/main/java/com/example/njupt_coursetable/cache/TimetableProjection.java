@@ -0,0 +1,70 @@
+package com.example.njupt_coursetable.cache;
+
+import com.example.njupt_coursetable.controller.dto.TimetableWeekDTO;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.utils.CourseSlotUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * 课表网格
+ * 每周为7x10的节次网格，格子里存课程ID，客户端无需再解析星期和节次字符串。
+ * 网格由WeekCourseCache组装的该周课程现场排布，不再按学生、按周单独缓存：
+ * 课程详情按开课共用之后，为每个学生的每一周各存一份网格反而成了内存的大头，
+ * 而排布一周十几门课只需几微秒；未变化时客户端靠ETag得到304，不会走到这里
+ */
+@Component
+public class TimetableProjection {
+
+    private static final long[] EMPTY_CELL = new long[0];
+
+    @Autowired
+    private WeekCourseCache weekCourseCache;
+
+    /**
+     * 获取某学生某周的课表网格
+     * @param studentId 学生ID
+     * @param week 周数
+     * @return 网格
+     */
+    public TimetableWeekDTO getWeek(String studentId, int week) {
+        TimetableWeekDTO grid = emptyGrid(week);
+        weekCourseCache.getWeek(studentId, week).forEach(course -> place(grid, course));
+        return grid;
+    }
+
+    private static TimetableWeekDTO emptyGrid(int week) {
+        TimetableWeekDTO grid = new TimetableWeekDTO();
+        grid.week = week;
+        grid.days = CourseSlotUtils.DAYS;
+        grid.slots = CourseSlotUtils.SLOTS;
+        grid.grid = new long[CourseSlotUtils.DAYS][CourseSlotUtils.SLOTS][];
+        for (long[][] day : grid.grid) {
+            Arrays.fill(day, EMPTY_CELL);
+        }
+        grid.courses = new LinkedHashMap<>();
+        return grid;
+    }
+
+    /**
+     * 将课程放入其所在的格子
+     * 星期或节次无法解析的课程不占格子，但仍在courses中：客户端用courses覆盖本地该周的课程，缺了会被当作已删除
+     */
+    private static void place(TimetableWeekDTO grid, Course course) {
+        grid.courses.put(course.getId(), course);
+        int day = CourseSlotUtils.dayIndex(course.getDayOfWeek());
+        int[] slots = CourseSlotUtils.slotRange(course.getTimeSlot());
+        if (day < 0 || slots == null) {
+            return;
+        }
+        for (int slot = slots[0] - 1; slot < slots[1]; slot++) {
+            long[] cell = grid.grid[day][slot];
+            long[] withCourse = Arrays.copyOf(cell, cell.length + 1);
+            withCourse[cell.length] = course.getId();
+            grid.grid[day][slot] = withCourse;
+        }
+    }
+}
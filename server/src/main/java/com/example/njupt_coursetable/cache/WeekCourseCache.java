@@ -0,0 +1,241 @@
+package com.example.njupt_coursetable.cache;
+
+import com.example.njupt_coursetable.event.CourseChangedEvent;
+import com.example.njupt_coursetable.event.OfferingChangedEvent;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.repository.CourseOfferingRepository;
+import com.example.njupt_coursetable.repository.EnrollmentRepository;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按周组装课程列表的缓存
+ * 课程详情按开课缓存，全校共用一份；每个学生只缓存自己选课的ID、所选开课和提醒状态。
+ * 请求某周时从学生的选课中筛出该周的课，复制开课详情并填入学生自己的字段，命中时不访问数据库，
+ * 内存占用随开课数和学生数增长，而不是随学生数×周数增长。
+ * 收到课程变更事件时重新加载该学生的选课，收到开课变更事件时只失效该开课；
+ * 缓存的学生数有上限，超出时淘汰最久未访问的学生，开课数以课程目录为上限。
+ * 失效先于DataVersions更新版本号：否则请求可能拿到新ETag却读到写入前的缓存，之后一直得到304
+ */
+@Component
+public class WeekCourseCache {
+
+    /**
+     * 变更事件监听器的顺序，缓存失效最先执行，DataVersions在其后
+     */
+    public static final int EVICTION_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(WeekCourseCache.class);
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseOfferingRepository courseOfferingRepository;
+
+    @Value("${app.cache.max-students:10000}")
+    private int maxStudents;
+
+    private StudentLruMap<StudentEnrollments> students;
+
+    private final ConcurrentHashMap<Long, OfferingDetails> offerings = new ConcurrentHashMap<>();
+
+    /**
+     * 开课的失效代数，用法与学生的失效代数相同
+     */
+    private final AtomicLong offeringGeneration = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        students = new StudentLruMap<>(maxStudents);
+    }
+
+    /**
+     * 获取某学生某周的课程列表
+     * @param studentId 学生ID
+     * @param week 周数
+     * @return 按课程ID排序的新列表，调用方可以修改
+     */
+    public List<Course> getWeek(String studentId, int week) {
+        if (week < 1 || week > WeekRangeUtils.MAX_WEEK) {
+            return new ArrayList<>();
+        }
+        boolean[] loaded = {false};
+        List<EnrollmentRef> enrollments = enrollments(studentId, loaded);
+        Map<Long, OfferingDetails> details = offerings(enrollments, loaded);
+        (loaded[0] ? misses : hits).increment();
+
+        long weekBit = 1L << (week - 1);
+        List<Course> courses = new ArrayList<>();
+        for (EnrollmentRef enrollment : enrollments) {
+            OfferingDetails offering = details.get(enrollment.offeringId);
+            if (offering != null && (offering.weekMask & weekBit) != 0) {
+                courses.add(offering.course.copyFor(enrollment.id, enrollment.shouldReminder,
+                        latest(enrollment.updatedAt, offering.course.getUpdatedAt())));
+            }
+        }
+        return courses;
+    }
+
+    @EventListener
+    @Order(EVICTION_ORDER)
+    public void onCourseChanged(CourseChangedEvent event) {
+        StudentEnrollments student = students.get(event.getStudentId());
+        if (student == null) {
+            return;
+        }
+        student.generation.incrementAndGet();
+        student.enrollments.set(null);
+        logger.debug("Evicted enrollments of student {}", event.getStudentId());
+    }
+
+    @EventListener
+    @Order(EVICTION_ORDER)
+    public void onOfferingChanged(OfferingChangedEvent event) {
+        offeringGeneration.incrementAndGet();
+        offerings.remove(event.getOfferingId());
+        logger.debug("Evicted offering {}", event.getOfferingId());
+    }
+
+    /**
+     * 失效全部缓存
+     */
+    public void evictAll() {
+        offeringGeneration.incrementAndGet();
+        students.clear();
+        offerings.clear();
+        logger.debug("Evicted all week cache entries");
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 已缓存选课的学生数
+     */
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * 已缓存详情的开课数
+     */
+    public int getOfferingCount() {
+        return offerings.size();
+    }
+
+    private List<EnrollmentRef> enrollments(String studentId, boolean[] loaded) {
+        StudentEnrollments student = students.computeIfAbsent(studentId, id -> new StudentEnrollments());
+        List<EnrollmentRef> cached = student.enrollments.get();
+        if (cached != null) {
+            return cached;
+        }
+
+        loaded[0] = true;
+        long loadedAt = student.generation.get();
+        List<EnrollmentRef> enrollments = Collections.unmodifiableList(enrollmentRepository.findRefsByStudentId(studentId));
+        if (student.generation.get() == loadedAt) {
+            student.enrollments.compareAndSet(null, enrollments);
+            // 放入后再检查一次，防止与并发失效交错
+            if (student.generation.get() != loadedAt) {
+                student.enrollments.compareAndSet(enrollments, null);
+            }
+        }
+        return enrollments;
+    }
+
+    /**
+     * 取出这些选课所选开课的详情，缺少的一次批量加载
+     */
+    private Map<Long, OfferingDetails> offerings(List<EnrollmentRef> enrollments, boolean[] loaded) {
+        Map<Long, OfferingDetails> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (EnrollmentRef enrollment : enrollments) {
+            OfferingDetails cached = offerings.get(enrollment.offeringId);
+            if (cached != null) {
+                result.put(enrollment.offeringId, cached);
+            } else {
+                missing.add(enrollment.offeringId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        loaded[0] = true;
+        long loadedAt = offeringGeneration.get();
+        for (CourseOffering offering : courseOfferingRepository.findAllById(missing)) {
+            OfferingDetails details = new OfferingDetails(offering.toCourse());
+            result.put(offering.getId(), details);
+            if (offeringGeneration.get() == loadedAt) {
+                offerings.putIfAbsent(offering.getId(), details);
+                if (offeringGeneration.get() != loadedAt) {
+                    offerings.remove(offering.getId(), details);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Long latest(Long a, Long b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a >= b ? a : b;
+    }
+
+    /**
+     * 一个学生的选课
+     * 失效代数每次失效加一，加载期间若发生失效，加载结果不会留在缓存中，避免旧数据覆盖新数据
+     */
+    private static final class StudentEnrollments {
+        final AtomicReference<List<EnrollmentRef>> enrollments = new AtomicReference<>();
+        final AtomicLong generation = new AtomicLong();
+    }
+
+    /**
+     * 一门开课的课程详情，所有选课学生共用；上课周次预先算成位图，按周筛选时只需一次位运算
+     */
+    private static final class OfferingDetails {
+        final Course course;
+        final long weekMask;
+
+        OfferingDetails(Course course) {
+            this.course = course;
+            long mask = 0;
+            for (int week : course.getWeeks()) {
+                mask |= 1L << (week - 1);
+            }
+            this.weekMask = mask;
+        }
+    }
+}
@@ -1,71 +1,117 @@
 package com.example.njupt_coursetable.config;
 
 import com.example.njupt_coursetable.model.Course;
-import com.example.njupt_coursetable.repository.CourseRepository;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.repository.CourseBulkWriter;
+import com.example.njupt_coursetable.repository.CourseOfferingRepository;
+import com.example.njupt_coursetable.repository.CourseTombstoneRepository;
+import com.example.njupt_coursetable.repository.LegacyCourseMigration;
+import com.example.njupt_coursetable.repository.ReminderRepository;
+import com.example.njupt_coursetable.tenant.StudentId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 @Configuration
 public class DataInitializer {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
 
+    /**
+     * 首次启动时写入示例课程目录，并为默认学生选上其中的课
+     * 旧版courses表中有数据时改为迁移这些课程，不再写入示例数据
+     */
     @Bean
-    public CommandLineRunner seedCourses(CourseRepository courseRepository) {
+    public CommandLineRunner seedCourses(CourseOfferingRepository courseOfferingRepository,
+                                         LegacyCourseMigration legacyCourseMigration,
+                                         CourseBulkWriter courseBulkWriter,
+                                         PlatformTransactionManager transactionManager) {
         return args -> {
-            long existing = courseRepository.count();
+            long existing = courseOfferingRepository.count();
             if (existing > 0) {
-                logger.info("Courses already exist ({} rows), skip auto seeding.", existing);
+                logger.info("Course offerings already exist ({} rows), skip auto seeding.", existing);
+                return;
+            }
+            if (legacyCourseMigration.migrate() > 0) {
                 return;
             }
 
-            logger.info("Seeding database with EE courses for 18 weeks...");
+            logger.info("Seeding database with EE course catalog for 18 weeks...");
 
-            // 真实的大三电子信息专业课程
-            String[] courseNames = {
-                "信号与系统", "数字信号处理", "通信原理", "微机原理与接口技术", 
-                "电磁场与电磁波", "高频电子线路", "数字图像处理", "嵌入式系统设计",
-                "EDA技术", "数据通信与计算机网络", "专业英语", "MATLAB课程设计",
-                "数字信号处理实验", "通信原理实验", "微机原理实验", "C语言程序设计"
+            // 真实的大三电子信息专业课程：课程名、老师、地点、星期、节次、周数、周类型、属性
+            String[][] enrolled = {
+                {"信号与系统", "王建华", "教一-203", "周一", "1-2节", "1-16周", "全周", "必修"},
+                {"数字信号处理", "李明", "教二-105", "周二", "3-4节", "1-16周", "全周", "必修"},
+                {"通信原理", "张伟", "教一-301", "周三", "1-2节", "1-16周", "全周", "必修"},
+                {"微机原理与接口技术", "陈静", "教二-208", "周四", "3-4节", "1-16周", "全周", "必修"},
+                {"电磁场与电磁波", "刘强", "教一-205", "周五", "1-2节", "1-16周", "全周", "必修"},
+                {"高频电子线路", "赵敏", "教二-106", "周一", "6-7节", "1-12周", "全周", "必修"},
+                {"数字图像处理", "孙丽", "教二-302", "周二", "8-9节", "1-12周", "全周", "选修"},
+                {"嵌入式系统设计", "周杰", "实验楼-405", "周三", "6-7节", "5-16周", "全周", "选修"},
+                {"EDA技术", "吴洋", "实验楼-501", "周四", "8-9节", "5-12周", "全周", "选修"},
+                {"数据通信与计算机网络", "郑浩", "教二-201", "周五", "3-4节", "1-16周", "全周", "必修"},
+                {"专业英语", "冯涛", "教一-203", "周三", "8-9节", "1-8周", "全周", "选修"},
+                {"数字信号处理实验", "李明", "实验楼-302", "周二", "6-7节", "3-15周", "单周", "实验"},
+                {"通信原理实验", "张伟", "实验楼-303", "周三", "3-4节", "4-16周", "双周", "实验"},
+                {"微机原理实验", "陈静", "实验楼-401", "周四", "6-7节", "3-15周", "单周", "实验"},
+                {"MATLAB课程设计", "黄磊", "机房-A201", "周一", "3-4节", "17-18周", "全周", "实践"},
+                {"C语言程序设计", "田芳", "机房-A201", "周五", "6-7节", "17-18周", "全周", "实践"}
+            };
+            // 同一门课的其他教学班，只在目录中，默认学生未选
+            String[][] otherSections = {
+                {"信号与系统", "李娜", "教二-105", "周三", "6-7节", "1-16周", "全周", "必修"},
+                {"数字信号处理", "孙丽", "教一-301", "周五", "8-9节", "1-16周", "全周", "必修"},
+                {"通信原理", "黄磊", "教一-205", "周四", "1-2节", "1-16周", "全周", "必修"},
+                {"高频电子线路", "刘强", "教二-208", "周二", "1-2节", "1-12周", "全周", "必修"}
             };
-            String[] teachers = {"王建华", "李明", "张伟", "陈静", "刘强", "赵敏", "孙丽", "周杰", "吴洋", "郑浩", "冯涛", "黄磊", "李娜", "田芳"};
-            String[] locations = {"教一-203", "教二-105", "教一-301", "实验楼-401", "教二-208", "教一-205", "教二-106", "实验楼-405", "实验楼-501", "教二-302", "教二-201", "机房-A201", "实验楼-302", "实验楼-303"};
-            String[] days = {"周一", "周二", "周三", "周四", "周五"};
-            String[] timeSlots = {"1-2节", "3-4节", "6-7节", "8-9节"};
-            String[] properties = {"必修", "选修", "实验", "实践"};
-
-            Random random = new Random(20250901);
-            List<Course> toSave = new ArrayList<>();
 
-            // 为18周生成课程
-            for (int week = 1; week <= 18; week++) {
-                int coursesThisWeek = 10 + random.nextInt(6); // 10-15门课程
-                for (int i = 0; i < coursesThisWeek; i++) {
-                    Course course = new Course();
-                    course.setCourseName(courseNames[random.nextInt(courseNames.length)]);
-                    course.setLocation(locations[random.nextInt(locations.length)]);
-                    course.setWeekRange(String.valueOf(week));
-                    course.setDayOfWeek(days[random.nextInt(days.length)]);
-                    course.setTimeSlot(timeSlots[random.nextInt(timeSlots.length)]);
-                    course.setTeacherName(teachers[random.nextInt(teachers.length)]);
-                    course.setContactInfo(teachers[random.nextInt(teachers.length)].replace("老师", "") + "@njupt.edu.cn");
-                    course.setProperty(properties[random.nextInt(properties.length)]);
-                    course.setRemarks("大三电子信息专业课程");
-                    course.setWeekType("全周");
-                    course.setShouldReminder(false);
-                    toSave.add(course);
-                }
+            List<Course> courses = new ArrayList<>();
+            for (String[] row : enrolled) {
+                courses.add(sampleCourse(row));
+            }
+            long now = System.currentTimeMillis();
+            List<CourseOffering> sections = new ArrayList<>();
+            for (String[] row : otherSections) {
+                CourseOffering offering = new CourseOffering(sampleCourse(row));
+                offering.setUpdatedAt(now);
+                sections.add(offering);
             }
 
-            courseRepository.saveAll(toSave);
-            logger.info("Seeded {} EE courses for 18 weeks.", toSave.size());
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                courseBulkWriter.insertBatch(StudentId.DEFAULT, courses);
+                courseBulkWriter.insertOfferings(sections);
+            });
+            logger.info("Seeded {} course offerings, {} enrolled by student '{}'.",
+                    courses.size() + sections.size(), courses.size(), StudentId.DEFAULT);
+        };
+    }
+
+    private static Course sampleCourse(String[] row) {
+        return new Course(row[0], row[2], row[5], row[3], row[4], row[1],
+                row[1] + "@njupt.edu.cn", row[7], "大三电子信息专业课程", row[6]);
+    }
+
+    /**
+     * 升级前所有客户端共用一份课程，把其提醒和删除记录归入默认学生，
+     * 未携带X-Student-Id的旧客户端仍能看到原来的数据；旧课程本身在迁移时归入默认学生
+     */
+    @Bean
+    public CommandLineRunner backfillStudentId(ReminderRepository reminderRepository,
+                                               CourseTombstoneRepository courseTombstoneRepository) {
+        return args -> {
+            int reminders = reminderRepository.backfillStudentId(StudentId.DEFAULT);
+            int tombstones = courseTombstoneRepository.backfillStudentId(StudentId.DEFAULT);
+            if (reminders + tombstones > 0) {
+                logger.info("Assigned {} reminders and {} tombstones to student '{}'.",
+                        reminders, tombstones, StudentId.DEFAULT);
+            }
         };
     }
 }
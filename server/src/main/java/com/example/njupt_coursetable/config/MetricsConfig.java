@@ -0,0 +1,93 @@
+package com.example.njupt_coursetable.config;
+
+import com.example.njupt_coursetable.cache.WeekCourseCache;
+import com.example.njupt_coursetable.event.ChangeEventBroadcaster;
+import com.example.njupt_coursetable.metrics.RequestQueryMetricsFilter;
+import com.example.njupt_coursetable.metrics.RequestQueryStats;
+import com.example.njupt_coursetable.scheduler.ReminderScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 监控指标配置
+ * 接口耗时（http.server.requests）和连接池指标（hikaricp.*）由Actuator自动提供，
+ * 这里补充每个请求的SQL语句数/实体加载数、按周缓存的命中率、变更推送的订阅者数和提醒调度器的待发送数
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryStatsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.INTERCEPTOR, RequestQueryStats.INSTANCE);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, RequestQueryStats.INSTANCE);
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestQueryMetricsFilter> requestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new RequestQueryMetricsFilter(meterRegistry));
+    }
+
+    @Bean
+    public MeterBinder weekCourseCacheMetrics(WeekCourseCache weekCourseCache) {
+        return registry -> {
+            FunctionCounter.builder("course.week.cache.hits", weekCourseCache, WeekCourseCache::getHits)
+                    .description("Week course cache hits")
+                    .register(registry);
+            FunctionCounter.builder("course.week.cache.misses", weekCourseCache, WeekCourseCache::getMisses)
+                    .description("Week course cache misses")
+                    .register(registry);
+            Gauge.builder("course.week.cache.size", weekCourseCache, WeekCourseCache::size)
+                    .description("Number of students with cached enrollments")
+                    .register(registry);
+            Gauge.builder("course.week.cache.offerings", weekCourseCache, WeekCourseCache::getOfferingCount)
+                    .description("Number of course offerings with cached details")
+                    .register(registry);
+            Gauge.builder("course.week.cache.hit.ratio", weekCourseCache, MetricsConfig::hitRatio)
+                    .description("Week course cache hit ratio since startup")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder changeEventStreamMetrics(ChangeEventBroadcaster changeEventBroadcaster) {
+        return registry -> {
+            Gauge.builder("events.stream.subscribers", changeEventBroadcaster, ChangeEventBroadcaster::getSubscriberCount)
+                    .description("Open change event streams")
+                    .register(registry);
+            FunctionCounter.builder("events.stream.overflows", changeEventBroadcaster, ChangeEventBroadcaster::getOverflows)
+                    .description("Subscribers disconnected with resync because they fell behind")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 调度器可通过app.reminders.scheduler.enabled=false关闭，关闭时不注册指标
+     */
+    @Bean
+    public MeterBinder reminderSchedulerMetrics(ObjectProvider<ReminderScheduler> reminderScheduler) {
+        return registry -> reminderScheduler.ifAvailable(scheduler -> {
+            Gauge.builder("reminders.scheduler.pending", scheduler, ReminderScheduler::getPendingCount)
+                    .description("Reminders waiting in the timing wheel")
+                    .register(registry);
+            FunctionCounter.builder("reminders.scheduler.dispatched", scheduler, ReminderScheduler::getDispatchedCount)
+                    .description("Due reminders handed to the dispatcher")
+                    .register(registry);
+        });
+    }
+
+    private static double hitRatio(WeekCourseCache cache) {
+        long hits = cache.getHits();
+        long total = hits + cache.getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.njupt_coursetable.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * 响应式读接口使用的R2DBC连接池
+ * 连接池只通过DatabaseClient暴露，不注册为ConnectionFactory Bean：
+ * 容器中存在ConnectionFactory时Spring Boot会跳过DataSource的自动配置，JPA将无法启动
+ */
+@Configuration
+public class ReactiveDataConfig {
+
+    @Value("${app.r2dbc.url}")
+    private String url;
+
+    @Value("${app.r2dbc.username:}")
+    private String username;
+
+    @Value("${app.r2dbc.password:}")
+    private String password;
+
+    @Value("${app.r2dbc.pool.max-size:20}")
+    private int maxPoolSize;
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .maxSize(maxPoolSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.njupt_coursetable.config;
+
+import com.example.njupt_coursetable.utils.CourseSlotUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 学期日历
+ * 根据学期第一周周一的日期，把"第几周星期几"换算成具体日期
+ */
+@Component
+public class SemesterCalendar {
+
+    @Value("${app.semester.start-date:2025-09-01}")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * 计算某周某天的日期
+     * @param week 周次，从1开始
+     * @param dayOfWeek 星期几，如"周一"、"星期三"
+     * @return 对应日期
+     * @throws IllegalArgumentException 无法识别星期几时抛出
+     */
+    public LocalDate dateOf(int week, String dayOfWeek) {
+        int dayIndex = CourseSlotUtils.dayIndex(dayOfWeek);
+        if (dayIndex < 0) {
+            throw new IllegalArgumentException("Unknown day of week: " + dayOfWeek);
+        }
+        return startDate.plusDays((week - 1) * 7L + dayIndex);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.njupt_coursetable.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile二进制格式配置
+ * 课程列表中教师、地点、备注等字符串在每行重复出现，开启共享字符串值后，
+ * 同一字符串只在首次出现时写出，之后写一个指向字符串表的引用（字段名默认已共享）
+ */
+@Configuration
+public class SmileConfig {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    /**
+     * 替换Spring MVC默认的Smile消息转换器
+     * 沿用Spring Boot的Jackson配置，只换成开启共享字符串值的SmileFactory；
+     * 转换器位置不变，未指定Accept的请求仍返回JSON
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+}
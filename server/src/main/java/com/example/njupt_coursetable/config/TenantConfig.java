@@ -0,0 +1,24 @@
+package com.example.njupt_coursetable.config;
+
+import com.example.njupt_coursetable.tenant.StudentIdArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 多租户配置：注册@StudentId参数解析器
+ */
+@Configuration
+public class TenantConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private StudentIdArgumentResolver studentIdArgumentResolver;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(studentIdArgumentResolver);
+    }
+}
@@ -1,15 +1,61 @@
 package com.example.njupt_coursetable.controller;
 
+import com.example.njupt_coursetable.cache.DataVersions;
+import com.example.njupt_coursetable.cache.WeekCourseCache;
+import com.example.njupt_coursetable.config.SmileConfig;
+import com.example.njupt_coursetable.controller.dto.BulkImportResultDTO;
+import com.example.njupt_coursetable.controller.dto.CourseChangesDTO;
+import com.example.njupt_coursetable.event.CourseChangedEvent;
+import com.example.njupt_coursetable.event.CourseChangedEvent.ChangeType;
 import com.example.njupt_coursetable.model.Course;
-import com.example.njupt_coursetable.repository.CourseRepository;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.CourseTombstone;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.repository.CourseBulkWriter;
+import com.example.njupt_coursetable.repository.CourseOfferingRepository;
+import com.example.njupt_coursetable.repository.CourseTombstoneRepository;
+import com.example.njupt_coursetable.repository.EnrollmentRepository;
+import com.example.njupt_coursetable.tenant.StudentId;
+import com.example.njupt_coursetable.utils.CourseCsvReader;
+import com.example.njupt_coursetable.utils.ETagUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -18,38 +64,251 @@ public class CourseController {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+    private static final String SMILE_ETAG_SUFFIX = "smile";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_ROWS = 500;
+    private static final int MAX_IMPORT_BATCH_SIZE = 5000;
+
+    /**
+     * 增量同步的回看窗口（毫秒）
+     * 修改时间在写入时生成、在提交时才可见，下次同步从本次查询时间往前回看一段，
+     * 避免漏掉查询时尚未提交的修改；重复下发的课程由客户端按ID覆盖
+     */
+    private static final long SYNC_COMMIT_LAG_MS = 5000;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseOfferingRepository courseOfferingRepository;
+
+    @Autowired
+    private CourseTombstoneRepository courseTombstoneRepository;
+
+    @Autowired
+    private CourseBulkWriter courseBulkWriter;
+
+    @Autowired
+    private WeekCourseCache weekCourseCache;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int defaultImportBatchSize;
 
     /**
-     * 获取所有课程
+     * 获取当前学生的所有课程
+     * 支持If-None-Match条件请求，数据未变化时返回304
      * @return 所有课程列表
      */
     @GetMapping
-    public List<Course> getAllCourses() {
-        logger.info("Getting all courses");
-        return courseRepository.findAll();
+    public ResponseEntity<List<Course>> getAllCourses(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.allCoursesETag(studentId);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting all courses of student: {}", studentId);
+        return ETagUtils.ok(etag).body(toCourses(enrollmentRepository.findByStudentIdOrderById(studentId)));
+    }
+
+    /**
+     * 以Smile二进制格式获取所有课程（Accept: application/x-jackson-smile）
+     * 重复出现的字符串只写一次，其余为字符串表引用；ETag与JSON版本区分
+     * @return 所有课程列表
+     */
+    @GetMapping(produces = SmileConfig.APPLICATION_SMILE)
+    public ResponseEntity<List<Course>> getAllCoursesSmile(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETagUtils.variant(dataVersions.allCoursesETag(studentId), SMILE_ETAG_SUFFIX);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting all courses of student as Smile: {}", studentId);
+        return ETagUtils.ok(etag).body(toCourses(enrollmentRepository.findByStudentIdOrderById(studentId)));
+    }
+
+    /**
+     * 游标分页获取课程，如 /api/courses?afterId=200&limit=100
+     * 响应头X-Next-After-Id给出下一页的游标，最后一页不返回该响应头
+     * @param afterId 上一页最后一条课程的ID，首页传0
+     * @param limit 每页条数，最大1000
+     * @return 该页课程列表
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<Course>> getCoursesPage(@StudentId String studentId,
+                                                       @RequestParam(defaultValue = "0") long afterId,
+                                                       @RequestParam int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("Getting courses of student: {} after id: {}, limit: {}", studentId, afterId, pageSize);
+
+        List<Enrollment> page = enrollmentRepository.findPageAfterId(studentId, afterId, PageRequest.of(0, pageSize));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_AFTER_ID_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(toCourses(page));
+    }
+
+    /**
+     * 以NDJSON格式流式输出所有课程（Accept: application/x-ndjson）
+     * 每行一个课程对象，边滚动查询边写出，内存占用与表大小无关
+     * @return 流式响应体
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllCourses(@StudentId String studentId) {
+        logger.info("Streaming all courses of student as NDJSON: {}", studentId);
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Enrollment> enrollments = enrollmentRepository.streamByStudentIdOrderById(studentId);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(out))) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                int rows = 0;
+                for (Enrollment enrollment : (Iterable<Enrollment>) enrollments::iterator) {
+                    rowWriter.writeValue(generator, enrollment.toCourse());
+                    generator.writeRaw('\n');
+                    // 写出后立即脱离持久化上下文，避免一级缓存随行数增长；开课按目录共用，数量有限，不必脱离
+                    entityManager.detach(enrollment);
+                    if (++rows % STREAM_FLUSH_ROWS == 0) {
+                        generator.flush();
+                    }
+                }
+                logger.info("Streamed {} courses", rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * 增量同步：获取某时间之后的课程变化
+     * since不大于0时返回全量快照
+     * @param since 上次同步返回的nextSince
+     * @return 新增/修改的课程、已删除的课程ID以及下次同步使用的since
+     */
+    @GetMapping("/changes")
+    public CourseChangesDTO getChanges(@StudentId String studentId, @RequestParam(defaultValue = "0") long since) {
+        logger.info("Getting course changes of student: {} since: {}", studentId, since);
+
+        CourseChangesDTO changes = new CourseChangesDTO();
+        changes.nextSince = System.currentTimeMillis() - SYNC_COMMIT_LAG_MS;
+        changes.full = since <= 0;
+        if (changes.full) {
+            changes.updated = toCourses(enrollmentRepository.findByStudentIdOrderById(studentId));
+            changes.deletedIds = List.of();
+        } else {
+            changes.updated = toCourses(enrollmentRepository.findChangedSince(studentId, since));
+            changes.deletedIds = courseTombstoneRepository.findCourseIdsDeletedAfter(studentId, since);
+        }
+        return changes;
     }
 
     /**
      * 根据周数查询课程
+     * 结果由按开课共用的课程详情和该学生的选课组装，命中缓存时不访问数据库；支持If-None-Match条件请求
      * @param weekNumber 周数，如"1"
      * @return 该周的全部课程列表
      */
     @GetMapping("/week/{weekNumber}")
-    public List<Course> getCoursesByWeek(@PathVariable String weekNumber) {
-        logger.info("Getting courses for week: {}", weekNumber);
-        return courseRepository.findByWeekNumber(weekNumber);
+    public ResponseEntity<List<Course>> getCoursesByWeek(
+            @StudentId String studentId,
+            @PathVariable int weekNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.weekETag(studentId, weekNumber);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting courses of student: {} for week: {}", studentId, weekNumber);
+        return ETagUtils.ok(etag).body(weekCourseCache.getWeek(studentId, weekNumber));
+    }
+
+    /**
+     * 以Smile二进制格式查询某周课程（Accept: application/x-jackson-smile）
+     * 与JSON版本共用同一缓存，ETag区分两种编码
+     * @param weekNumber 周数，如"1"
+     * @return 该周的全部课程列表
+     */
+    @GetMapping(value = "/week/{weekNumber}", produces = SmileConfig.APPLICATION_SMILE)
+    public ResponseEntity<List<Course>> getCoursesByWeekSmile(
+            @StudentId String studentId,
+            @PathVariable int weekNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETagUtils.variant(dataVersions.weekETag(studentId, weekNumber), SMILE_ETAG_SUFFIX);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting courses of student: {} for week as Smile: {}", studentId, weekNumber);
+        return ETagUtils.ok(etag).body(weekCourseCache.getWeek(studentId, weekNumber));
+    }
+
+    /**
+     * 获取按周缓存的命中统计
+     * @return 命中数、未命中数、已缓存的学生数和开课数
+     */
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getWeekCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", weekCourseCache.getHits());
+        stats.put("misses", weekCourseCache.getMisses());
+        stats.put("cachedStudents", weekCourseCache.size());
+        stats.put("cachedOfferings", weekCourseCache.getOfferingCount());
+        return stats;
     }
     
     /**
-     * 获取所有需要提醒的课程
+     * 获取当前学生所有需要提醒的课程
      * @return 需要提醒的课程列表
      */
     @GetMapping("/reminders")
-    public List<Course> getCoursesWithReminders() {
-        logger.info("Getting all courses with reminders");
-        return courseRepository.findByShouldReminderTrue();
+    public ResponseEntity<List<Course>> getCoursesWithReminders(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.reminderCoursesETag(studentId);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting all courses with reminders of student: {}", studentId);
+        return ETagUtils.ok(etag).body(toCourses(enrollmentRepository.findByStudentIdAndShouldReminderTrue(studentId)));
+    }
+
+    /**
+     * 以Smile二进制格式获取所有需要提醒的课程（Accept: application/x-jackson-smile）
+     * @return 需要提醒的课程列表
+     */
+    @GetMapping(value = "/reminders", produces = SmileConfig.APPLICATION_SMILE)
+    public ResponseEntity<List<Course>> getCoursesWithRemindersSmile(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETagUtils.variant(dataVersions.reminderCoursesETag(studentId), SMILE_ETAG_SUFFIX);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting all courses with reminders of student as Smile: {}", studentId);
+        return ETagUtils.ok(etag).body(toCourses(enrollmentRepository.findByStudentIdAndShouldReminderTrue(studentId)));
     }
     
     /**
@@ -59,52 +318,120 @@ public class CourseController {
      * @return 更新后的课程对象
      */
     @PutMapping("/{id}/reminder")
-    public ResponseEntity<Course> updateCourseReminderStatus(@PathVariable Long id, @RequestParam boolean shouldReminder) {
+    public ResponseEntity<Course> updateCourseReminderStatus(@StudentId String studentId, @PathVariable Long id,
+                                                             @RequestParam boolean shouldReminder) {
         logger.info("Updating course reminder status with id: {} to: {}", id, shouldReminder);
         
-        return courseRepository.findById(id)
-                .map(course -> {
-                    course.setShouldReminder(shouldReminder);
-                    return ResponseEntity.ok(courseRepository.save(course));
+        return enrollmentRepository.findByIdAndStudentId(id, studentId)
+                .map(enrollment -> {
+                    enrollment.setShouldReminder(shouldReminder);
+                    Enrollment saved = enrollmentRepository.save(enrollment);
+                    publishCourseChanged(studentId, ChangeType.UPDATED, saved.getId(), saved.getWeeks());
+                    return ResponseEntity.ok(saved.toCourse());
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
     /**
-     * 创建新课程
+     * 为当前学生创建新课程
+     * 课程目录中已有详情完全相同的开课时直接选这门课，没有时先新建开课
      * @param course 课程对象
      * @return 创建的课程对象
      */
     @PostMapping
-    public Course createCourse(@RequestBody Course course) {
-        logger.info("Creating new course: {}", course.getCourseName());
-        return courseRepository.save(course);
+    public Course createCourse(@StudentId String studentId, @RequestBody Course course) {
+        logger.info("Creating new course: {} for student: {}", course.getCourseName(), studentId);
+        Enrollment saved = new TransactionTemplate(transactionManager).execute(status -> {
+            CourseOffering offering = courseOfferingRepository.findOrCreate(course);
+            return enrollmentRepository.save(new Enrollment(studentId, offering, course.isShouldReminder()));
+        });
+        publishCourseChanged(studentId, ChangeType.CREATED, saved.getId(), saved.getWeeks());
+        return saved.toCourse();
     }
     
+    /**
+     * 批量导入课程（JSON数组）
+     * 边解析边按批写入，全部成功才提交，任一行出错则整体回滚
+     * @param body 课程JSON数组
+     * @param batchSize 每批写入的行数，默认取app.import.batch-size
+     * @return 导入行数、批次数和写入速率
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO> bulkImportJson(@StudentId String studentId,
+                                                              InputStream body,
+                                                              @RequestParam(required = false) Integer batchSize) throws IOException {
+        try (MappingIterator<Course> courses = objectMapper.readerFor(Course.class).readValues(body)) {
+            // MappingIterator的hasNext/next会把解析错误包成普通RuntimeException，这里改用受检版本统一转换
+            return bulkImport(new Iterator<Course>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return courses.hasNextValue();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public Course next() {
+                    try {
+                        return courses.nextValue();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }, studentId, batchSize);
+        }
+    }
+
+    /**
+     * 批量导入课程（CSV，首行为表头，列名与JSON字段名一致）
+     * @param body UTF-8编码的CSV
+     * @param batchSize 每批写入的行数，默认取app.import.batch-size
+     * @return 导入行数、批次数和写入速率
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO> bulkImportCsv(@StudentId String studentId,
+                                                             InputStream body,
+                                                             @RequestParam(required = false) Integer batchSize) throws IOException {
+        CourseCsvReader courses;
+        try {
+            courses = new CourseCsvReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return bulkImportFailed(e, batchSize == null ? defaultImportBatchSize : batchSize, System.nanoTime());
+        }
+        try (courses) {
+            return bulkImport(courses, studentId, batchSize);
+        }
+    }
+
     /**
      * 更新课程
+     * 只修改当前学生自己的课程：详情有变化时改选详情相同的开课（没有则新建），
+     * 选了原开课的其他学生不受影响；修改全校共用的开课信息见OfferingController
      * @param id 课程ID
      * @param courseDetails 课程详情
      * @return 更新后的课程对象
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Course> updateCourse(@PathVariable Long id, @RequestBody Course courseDetails) {
+    public ResponseEntity<Course> updateCourse(@StudentId String studentId, @PathVariable Long id,
+                                               @RequestBody Course courseDetails) {
         logger.info("Updating course with id: {}", id);
         
-        return courseRepository.findById(id)
-                .map(course -> {
-                    course.setCourseName(courseDetails.getCourseName());
-                    course.setLocation(courseDetails.getLocation());
-                    course.setWeekRange(courseDetails.getWeekRange());
-                    course.setDayOfWeek(courseDetails.getDayOfWeek());
-                    course.setTimeSlot(courseDetails.getTimeSlot());
-                    course.setTeacherName(courseDetails.getTeacherName());
-                    course.setContactInfo(courseDetails.getContactInfo());
-                    course.setProperty(courseDetails.getProperty());
-                    course.setRemarks(courseDetails.getRemarks());
-                    course.setWeekType(courseDetails.getWeekType());
-                    course.setShouldReminder(courseDetails.isShouldReminder());
-                    return ResponseEntity.ok(courseRepository.save(course));
+        return enrollmentRepository.findByIdAndStudentId(id, studentId)
+                .map(enrollment -> {
+                    // 记录修改前的周次，周数变化时新旧周都受影响
+                    Set<Integer> affectedWeeks = new HashSet<>(enrollment.getWeeks());
+                    Enrollment saved = new TransactionTemplate(transactionManager).execute(status -> {
+                        if (!enrollment.getOffering().sameDetails(courseDetails)) {
+                            enrollment.setOffering(courseOfferingRepository.findOrCreate(courseDetails));
+                        }
+                        enrollment.setShouldReminder(courseDetails.isShouldReminder());
+                        return enrollmentRepository.save(enrollment);
+                    });
+                    affectedWeeks.addAll(saved.getWeeks());
+                    publishCourseChanged(studentId, ChangeType.UPDATED, saved.getId(), affectedWeeks);
+                    return ResponseEntity.ok(saved.toCourse());
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -115,14 +442,92 @@ public class CourseController {
      * @return 响应结果
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCourse(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteCourse(@StudentId String studentId, @PathVariable Long id) {
         logger.info("Deleting course with id: {}", id);
         
-        return courseRepository.findById(id)
-                .map(course -> {
-                    courseRepository.delete(course);
+        return enrollmentRepository.findByIdAndStudentId(id, studentId)
+                .map(enrollment -> {
+                    Set<Integer> affectedWeeks = new HashSet<>(enrollment.getWeeks());
+                    // 删除选课与写入墓碑放在同一事务中，保证增量同步不会漏掉删除；开课留在目录中
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        enrollmentRepository.delete(enrollment);
+                        courseTombstoneRepository.save(new CourseTombstone(id, studentId, System.currentTimeMillis()));
+                    });
+                    publishCourseChanged(studentId, ChangeType.DELETED, id, affectedWeeks);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * 在一个事务中按批写入课程，全部归入当前学生，完成后发布一次变更事件
+     */
+    private ResponseEntity<BulkImportResultDTO> bulkImport(Iterator<Course> courses, String studentId, Integer batchSize) {
+        int size = Math.max(1, Math.min(batchSize == null ? defaultImportBatchSize : batchSize, MAX_IMPORT_BATCH_SIZE));
+        long start = System.nanoTime();
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        result.batchSize = size;
+        Set<Integer> affectedWeeks = new HashSet<>();
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                List<Course> batch = new ArrayList<>(size);
+                while (courses.hasNext()) {
+                    Course course = courses.next();
+                    if (course.getCourseName() == null) {
+                        throw new IllegalArgumentException("Missing courseName at row " + (result.imported + batch.size() + 1));
+                    }
+                    batch.add(course);
+                    if (batch.size() == size) {
+                        writeImportBatch(studentId, batch, result, affectedWeeks);
+                    }
+                }
+                writeImportBatch(studentId, batch, result, affectedWeeks);
+            });
+        } catch (IllegalArgumentException | UncheckedIOException
+                 | DataIntegrityViolationException e) {
+            return bulkImportFailed(e, size, start);
+        }
+
+        result.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        result.rowsPerSecond = result.imported * 1000L / Math.max(1, result.elapsedMs);
+        logger.info("Bulk imported {} courses in {} batches, {} ms ({} rows/s)",
+                result.imported, result.batches, result.elapsedMs, result.rowsPerSecond);
+        if (result.imported > 0) {
+            publishCourseChanged(studentId, ChangeType.CREATED, null, affectedWeeks);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private void writeImportBatch(String studentId, List<Course> batch, BulkImportResultDTO result,
+                                  Set<Integer> affectedWeeks) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        result.imported += courseBulkWriter.insertBatch(studentId, batch);
+        result.batches++;
+        batch.forEach(course -> affectedWeeks.addAll(course.getWeeks()));
+        batch.clear();
+    }
+
+    private ResponseEntity<BulkImportResultDTO> bulkImportFailed(RuntimeException e, int batchSize, long start) {
+        String message = e instanceof UncheckedIOException ? e.getCause().getMessage() : e.getMessage();
+        logger.warn("Bulk import rolled back: {}", message);
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        result.batchSize = batchSize;
+        result.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        result.error = message;
+        return ResponseEntity.badRequest().body(result);
+    }
+
+    private static List<Course> toCourses(List<Enrollment> enrollments) {
+        return enrollments.stream().map(Enrollment::toCourse).collect(Collectors.toList());
+    }
+
+    /**
+     * 发布课程变更事件，由缓存、版本号等监听者各自处理
+     */
+    private void publishCourseChanged(String studentId, ChangeType type, Long courseId, Set<Integer> affectedWeeks) {
+        eventPublisher.publishEvent(new CourseChangedEvent(studentId, type, courseId, new HashSet<>(affectedWeeks)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.njupt_coursetable.controller;
+
+import com.example.njupt_coursetable.event.ChangeEventBroadcaster;
+import com.example.njupt_coursetable.tenant.StudentId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamController.class);
+
+    @Autowired
+    private ChangeEventBroadcaster changeEventBroadcaster;
+
+    /**
+     * 订阅当前学生课程和提醒的变更事件（SSE）
+     * 事件类型：connected（连接建立）、course、reminder、resync（积压过多被断开，需重新同步）；
+     * 空闲时定期发送注释行作为心跳
+     * @return SSE事件流
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamChanges(@StudentId String studentId) {
+        logger.debug("New change event subscriber for student: {}", studentId);
+        return changeEventBroadcaster.subscribe(studentId);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.njupt_coursetable.controller;
+
+import com.example.njupt_coursetable.event.CourseChangedEvent;
+import com.example.njupt_coursetable.event.CourseChangedEvent.ChangeType;
+import com.example.njupt_coursetable.event.OfferingChangedEvent;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.repository.CourseOfferingRepository;
+import com.example.njupt_coursetable.repository.EnrollmentRepository;
+import com.example.njupt_coursetable.tenant.StudentId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 课程目录
+ * 开课信息全校共用，学生的课程通过选课记录引用开课；
+ * 修改一门开课只写一行并发布一次开课变更事件，不逐个加载选课记录；修改开课仅限管理员
+ */
+@RestController
+@RequestMapping("/api/offerings")
+@CrossOrigin(origins = "*")
+public class OfferingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferingController.class);
+
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    @Autowired
+    private CourseOfferingRepository courseOfferingRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 修改开课所需的管理员令牌，为空时禁止修改开课
+     */
+    @Value("${app.catalog.admin-token:}")
+    private String adminToken;
+
+    /**
+     * 游标分页浏览课程目录，如 /api/offerings?afterId=200&limit=100
+     * 响应头X-Next-After-Id给出下一页的游标，最后一页不返回该响应头
+     * @param afterId 上一页最后一条开课的ID，首页传0
+     * @param limit 每页条数，最大1000
+     * @return 该页开课列表
+     */
+    @GetMapping
+    public ResponseEntity<List<CourseOffering>> getOfferings(@RequestParam(defaultValue = "0") long afterId,
+                                                             @RequestParam(defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<CourseOffering> page = courseOfferingRepository.findPageAfterId(afterId, PageRequest.of(0, pageSize));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_AFTER_ID_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * 获取一门开课
+     * @param id 开课ID
+     * @return 开课信息
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CourseOffering> getOffering(@PathVariable Long id) {
+        return courseOfferingRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 修改开课信息，如调整教室或老师（仅限管理员）
+     * 开课为全校共用，请求须在X-Admin-Token中携带app.catalog.admin-token配置的令牌，未配置令牌时该接口关闭。
+     * 只更新course_offerings中的一行，选了该课的所有学生下次读取时都看到新信息；
+     * 受影响的学生只按ID查出，发布一次开课变更事件
+     * @param id 开课ID
+     * @param details 新的课程详情，shouldReminder等学生自己的字段被忽略
+     * @return 更新后的开课，令牌缺失或不符时返回403
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<CourseOffering> updateOffering(@PathVariable Long id, @RequestBody Course details,
+                                                         @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (!isAdmin(token)) {
+            logger.warn("Rejected update of offering {} without a valid admin token", id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        logger.info("Updating offering with id: {}", id);
+        Set<Integer> affectedWeeks = new HashSet<>();
+        CourseOffering saved = new TransactionTemplate(transactionManager).execute(status ->
+                courseOfferingRepository.findById(id)
+                        .map(offering -> {
+                            // 记录修改前的周次，周数变化时新旧周都受影响
+                            affectedWeeks.addAll(offering.getWeeks());
+                            offering.copyDetails(details);
+                            return courseOfferingRepository.save(offering);
+                        })
+                        .orElse(null));
+        if (saved == null) {
+            return ResponseEntity.notFound().build();
+        }
+        affectedWeeks.addAll(saved.getWeeks());
+
+        Set<String> studentIds = new HashSet<>(enrollmentRepository.findStudentIdsByOfferingId(saved.getId()));
+        eventPublisher.publishEvent(new OfferingChangedEvent(saved.getId(), studentIds, affectedWeeks));
+        logger.info("Offering {} updated, {} students enrolled", saved.getId(), studentIds.size());
+        return ResponseEntity.ok(saved);
+    }
+
+    /**
+     * 当前学生选这门课
+     * @param id 开课ID
+     * @param shouldReminder 是否需要提醒
+     * @return 新建的课程
+     */
+    @PostMapping("/{id}/enrollments")
+    public ResponseEntity<Course> enroll(@StudentId String studentId, @PathVariable Long id,
+                                         @RequestParam(defaultValue = "false") boolean shouldReminder) {
+        logger.info("Enrolling student: {} in offering: {}", studentId, id);
+        return courseOfferingRepository.findById(id)
+                .map(offering -> {
+                    Enrollment saved = enrollmentRepository.save(new Enrollment(studentId, offering, shouldReminder));
+                    eventPublisher.publishEvent(new CourseChangedEvent(studentId, ChangeType.CREATED,
+                            saved.getId(), new HashSet<>(saved.getWeeks())));
+                    return ResponseEntity.ok(saved.toCourse());
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 校验管理员令牌，按字节比较固定耗时，不泄露匹配到第几位
+     */
+    private boolean isAdmin(String token) {
+        if (adminToken.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.njupt_coursetable.controller;
+
+import com.example.njupt_coursetable.cache.DataVersions;
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.repository.ReactiveCourseRepository;
+import com.example.njupt_coursetable.tenant.StudentId;
+import com.example.njupt_coursetable.utils.ETagUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * 非阻塞的只读接口，路径与阻塞版一一对应，前缀为/api/reactive
+ * 查询走R2DBC，等待数据库期间不占用请求线程，便于与阻塞版并排压测
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*")
+public class ReactiveCourseController {
+
+    @Autowired
+    private ReactiveCourseRepository reactiveCourseRepository;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    /**
+     * 获取所有课程
+     */
+    @GetMapping("/courses")
+    public ResponseEntity<Flux<Course>> getAllCourses(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.allCoursesETag(studentId);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        return ETagUtils.ok(etag).body(reactiveCourseRepository.findByStudentId(studentId));
+    }
+
+    /**
+     * 根据周数查询课程
+     */
+    @GetMapping("/courses/week/{weekNumber}")
+    public ResponseEntity<Flux<Course>> getCoursesByWeek(
+            @StudentId String studentId,
+            @PathVariable int weekNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.weekETag(studentId, weekNumber);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        return ETagUtils.ok(etag).body(reactiveCourseRepository.findByStudentIdAndWeekNumber(studentId, weekNumber));
+    }
+
+    /**
+     * 获取所有需要提醒的课程
+     */
+    @GetMapping("/courses/reminders")
+    public ResponseEntity<Flux<Course>> getCoursesWithReminders(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.reminderCoursesETag(studentId);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        return ETagUtils.ok(etag).body(reactiveCourseRepository.findByStudentIdAndShouldReminderTrue(studentId));
+    }
+
+    /**
+     * 获取即将到来的提醒
+     */
+    @GetMapping("/reminders/upcoming")
+    public ResponseEntity<Flux<ReminderDTO>> getUpcomingReminders(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LocalDate today = LocalDate.now();
+        String etag = dataVersions.upcomingRemindersETag(studentId, today);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        return ETagUtils.ok(etag).body(reactiveCourseRepository.findUpcomingReminders(studentId, today));
+    }
+}
@@ -1,19 +1,38 @@
 package com.example.njupt_coursetable.controller;
 
-import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.cache.DataVersions;
+import com.example.njupt_coursetable.config.SemesterCalendar;
+import com.example.njupt_coursetable.event.ReminderChangedEvent;
+import com.example.njupt_coursetable.event.ReminderChangedEvent.ChangeType;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Enrollment;
 import com.example.njupt_coursetable.model.Reminder;
-import com.example.njupt_coursetable.repository.CourseRepository;
+import com.example.njupt_coursetable.repository.EnrollmentRepository;
 import com.example.njupt_coursetable.repository.ReminderRepository;
 import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.example.njupt_coursetable.tenant.StudentId;
+import com.example.njupt_coursetable.utils.ETagUtils;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/reminders")
@@ -24,55 +43,213 @@ public class ReminderController {
     private ReminderRepository reminderRepository;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SemesterCalendar semesterCalendar;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @GetMapping("/upcoming")
-    public List<ReminderDTO> getUpcoming() {
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
-        List<Reminder> list = reminderRepository.findByCourseDateGreaterThanEqual(LocalDate.now());
-        return list.stream().map(r -> {
-            ReminderDTO dto = new ReminderDTO();
-            dto.id = r.getId();
-            if (r.getCourse() != null) {
-                dto.courseId = r.getCourse().getId();
-                dto.courseName = r.getCourse().getCourseName();
-                dto.location = r.getCourse().getLocation();
-                dto.dayOfWeek = r.getCourse().getDayOfWeek();
-                dto.timeSlot = r.getCourse().getTimeSlot();
-            }
-            dto.courseDate = r.getCourseDate().toString();
-            dto.startTime = r.getStartTime().format(timeFormatter);
-            return dto;
-        }).toList();
+    public ResponseEntity<List<ReminderDTO>> getUpcoming(
+            @StudentId String studentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LocalDate today = LocalDate.now();
+        String etag = dataVersions.upcomingRemindersETag(studentId, today);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+
+        return ETagUtils.ok(etag).body(reminderRepository.findUpcomingDTOs(studentId, today));
     }
 
     @PostMapping
     public ResponseEntity<Reminder> create(
+            @StudentId String studentId,
             @RequestParam Long courseId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate courseDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime
     ) {
-        return courseRepository.findById(courseId)
-                .map(c -> ResponseEntity.ok(reminderRepository.save(new Reminder(c, courseDate, startTime))))
+        // 课程必须属于当前学生，同一课程同一天已有提醒时直接返回已有记录
+        return enrollmentRepository.findByIdAndStudentId(courseId, studentId)
+                .map(c -> reminderRepository.findByEnrollmentIdAndCourseDate(courseId, courseDate)
+                        .orElseGet(() -> {
+                            Reminder saved = reminderRepository.save(new Reminder(c, courseDate, startTime));
+                            eventPublisher.publishEvent(new ReminderChangedEvent(
+                                    studentId, ChangeType.CREATED, saved.getId(), courseId, List.of(saved)));
+                            return saved;
+                        }))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        return reminderRepository.findById(id)
-                .map(r -> { reminderRepository.delete(r); return ResponseEntity.ok().<Void>build(); })
+    public ResponseEntity<Void> delete(@StudentId String studentId, @PathVariable Long id) {
+        return reminderRepository.findByIdAndStudentId(id, studentId)
+                .map(r -> {
+                    reminderRepository.delete(r);
+                    eventPublisher.publishEvent(new ReminderChangedEvent(studentId, ChangeType.DELETED, r.getId(), r.getEnrollment().getId()));
+                    return ResponseEntity.ok().<Void>build();
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/byCourseDate")
     public ResponseEntity<Void> deleteByCourseAndDate(
+            @StudentId String studentId,
             @RequestParam Long courseId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate courseDate
     ) {
-        return reminderRepository.findByCourseIdAndCourseDate(courseId, courseDate)
-                .map(r -> { reminderRepository.delete(r); return ResponseEntity.ok().<Void>build(); })
+        return reminderRepository.findByEnrollmentIdAndCourseDate(courseId, courseDate)
+                .filter(r -> studentId.equals(r.getStudentId()))
+                .map(r -> {
+                    reminderRepository.delete(r);
+                    eventPublisher.publishEvent(new ReminderChangedEvent(studentId, ChangeType.DELETED, r.getId(), r.getEnrollment().getId()));
+                    return ResponseEntity.ok().<Void>build();
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
 
+    /**
+     * 批量创建某课程的提醒，如 /api/reminders/batch?courseId=3&weeks=1-16&startTime=08:00:00
+     * weeks按学期日历和课程的星期几换算成日期；weeks和dates都不传时使用课程自身的上课周次
+     * 今天之前的日期跳过，学期中按课程周次批量创建时不会为已过去的周生成提醒；没有剩余日期时返回400
+     * 已存在的提醒保持不变，全部在一个事务中完成
+     * @param courseId 课程ID
+     * @param weeks 周次，写法同课程的weekRange，如"1-16"、"1,3,5"
+     * @param dates 具体日期列表，与weeks同时传入时取并集
+     * @param startTime 上课时间
+     * @return 这些日期上该课程的全部提醒
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReminderDTO>> createBatch(
+            @StudentId String studentId,
+            @RequestParam Long courseId,
+            @RequestParam(required = false) String weeks,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> dates,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime
+    ) {
+        Optional<Enrollment> found = enrollmentRepository.findByIdAndStudentId(courseId, studentId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Enrollment enrollment = found.get();
+        CourseOffering offering = enrollment.getOffering();
+
+        Set<LocalDate> courseDates;
+        try {
+            courseDates = resolveDates(offering, weeks == null && dates == null ? enrollment.getWeeks() : parseWeeks(weeks), dates);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate today = LocalDate.now();
+        courseDates.removeIf(date -> date.isBefore(today));
+        if (courseDates.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Reminder> created = new ArrayList<>();
+        List<Reminder> reminders = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Reminder> result = reminderRepository.findByEnrollmentIdAndCourseDateIn(courseId, courseDates);
+            Set<LocalDate> existingDates = result.stream().map(Reminder::getCourseDate).collect(Collectors.toSet());
+            for (LocalDate date : courseDates) {
+                if (!existingDates.contains(date)) {
+                    created.add(new Reminder(enrollment, date, startTime));
+                }
+            }
+            result.addAll(reminderRepository.saveAll(created));
+            return result;
+        });
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new ReminderChangedEvent(studentId, ChangeType.CREATED, null, courseId, created));
+        }
+
+        List<ReminderDTO> body = reminders.stream()
+                .sorted(Comparator.comparing(Reminder::getCourseDate))
+                .map(r -> new ReminderDTO(r.getId(), studentId, enrollment.getId(), offering.getCourseName(), offering.getLocation(),
+                        offering.getDayOfWeek(), offering.getTimeSlot(), r.getCourseDate(), r.getStartTime()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * 批量删除某课程的提醒
+     * weeks和dates都不传时删除该课程的全部提醒
+     * @param courseId 课程ID
+     * @param weeks 周次，写法同课程的weekRange
+     * @param dates 具体日期列表
+     * @return 删除的提醒数
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<Map<String, Integer>> deleteBatch(
+            @StudentId String studentId,
+            @RequestParam Long courseId,
+            @RequestParam(required = false) String weeks,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> dates
+    ) {
+        Optional<Enrollment> found = enrollmentRepository.findByIdAndStudentId(courseId, studentId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Set<LocalDate> courseDates = null;
+        if (weeks != null || dates != null) {
+            try {
+                courseDates = resolveDates(found.get().getOffering(), parseWeeks(weeks), dates);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (courseDates.isEmpty()) {
+                return ResponseEntity.ok(Map.of("deleted", 0));
+            }
+        }
 
+        // 先查出要删除的提醒ID再按ID删除，事件带上这些ID，调度器逐个从时间轮中摘除
+        Set<LocalDate> selectedDates = courseDates;
+        List<Long> deletedIds = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = selectedDates == null
+                    ? reminderRepository.findIdsByCourseId(courseId)
+                    : reminderRepository.findIdsByCourseIdAndCourseDates(courseId, selectedDates);
+            if (!ids.isEmpty()) {
+                reminderRepository.deleteByIdIn(ids);
+            }
+            return ids;
+        });
+
+        if (!deletedIds.isEmpty()) {
+            eventPublisher.publishEvent(ReminderChangedEvent.batchDeleted(studentId, courseId, deletedIds));
+        }
+        return ResponseEntity.ok(Map.of("deleted", deletedIds.size()));
+    }
+
+    private Set<Integer> parseWeeks(String weeks) {
+        if (weeks == null) {
+            return Set.of();
+        }
+        Set<Integer> parsed = WeekRangeUtils.parseWeeks(weeks, null);
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Invalid weeks: " + weeks);
+        }
+        return parsed;
+    }
+
+    /**
+     * 将周次换算成该课程的上课日期，并与显式传入的日期合并
+     */
+    private Set<LocalDate> resolveDates(CourseOffering offering, Collection<Integer> weeks, List<LocalDate> dates) {
+        Set<LocalDate> result = new TreeSet<>();
+        for (int week : weeks) {
+            result.add(semesterCalendar.dateOf(week, offering.getDayOfWeek()));
+        }
+        if (dates != null) {
+            result.addAll(dates);
+        }
+        return result;
+    }
+}
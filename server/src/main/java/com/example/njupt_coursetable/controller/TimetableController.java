@@ -0,0 +1,47 @@
+package com.example.njupt_coursetable.controller;
+
+import com.example.njupt_coursetable.cache.DataVersions;
+import com.example.njupt_coursetable.cache.TimetableProjection;
+import com.example.njupt_coursetable.controller.dto.TimetableWeekDTO;
+import com.example.njupt_coursetable.tenant.StudentId;
+import com.example.njupt_coursetable.utils.ETagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/timetable")
+@CrossOrigin(origins = "*")
+public class TimetableController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableController.class);
+
+    @Autowired
+    private TimetableProjection timetableProjection;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    /**
+     * 获取当前学生某周的课表网格
+     * grid[day][slot]为该节次的课程ID（day从0即周一开始，slot从0即第1节开始），课程详情见courses
+     * 支持If-None-Match条件请求
+     * @param weekNumber 周数
+     * @return 7x10的课表网格
+     */
+    @GetMapping("/week/{weekNumber}")
+    public ResponseEntity<TimetableWeekDTO> getWeek(
+            @StudentId String studentId,
+            @PathVariable int weekNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.timetableWeekETag(studentId, weekNumber);
+        if (ETagUtils.matches(ifNoneMatch, etag)) {
+            return ETagUtils.notModified(etag);
+        }
+        logger.info("Getting timetable of student: {} for week: {}", studentId, weekNumber);
+        return ETagUtils.ok(etag).body(timetableProjection.getWeek(studentId, weekNumber));
+    }
+}
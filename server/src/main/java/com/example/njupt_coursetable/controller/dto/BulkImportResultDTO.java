@@ -0,0 +1,10 @@
+package com.example.njupt_coursetable.controller.dto;
+
+public class BulkImportResultDTO {
+    public int imported;             // 成功写入的课程数，失败时为0
+    public int batches;              // 执行的JDBC批次数
+    public int batchSize;            // 每批行数
+    public long elapsedMs;           // 解析加写入的总耗时
+    public long rowsPerSecond;       // 写入速率
+    public String error;             // 失败原因，成功时为null
+}
@@ -0,0 +1,10 @@
+package com.example.njupt_coursetable.controller.dto;
+
+import java.util.Set;
+
+public class ChangeEventDTO {
+    public String type;             // CREATED、UPDATED或DELETED
+    public Long id;                 // 课程或提醒ID，批量操作时为null
+    public Long courseId;           // 所属课程ID，课程事件与id相同
+    public Set<Integer> weeks;      // 课程变更涉及的周次，提醒事件为null
+}
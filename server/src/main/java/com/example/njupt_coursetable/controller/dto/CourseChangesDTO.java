@@ -0,0 +1,12 @@
+package com.example.njupt_coursetable.controller.dto;
+
+import com.example.njupt_coursetable.model.Course;
+
+import java.util.List;
+
+public class CourseChangesDTO {
+    public boolean full;             // true表示全量快照，客户端应先清空本地数据
+    public List<Course> updated;     // 新增或修改过的课程
+    public List<Long> deletedIds;    // 已删除的课程ID
+    public long nextSince;           // 下次同步时传入的since
+}
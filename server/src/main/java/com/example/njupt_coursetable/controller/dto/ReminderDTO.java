@@ -1,7 +1,14 @@
 package com.example.njupt_coursetable.controller.dto;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
 public class ReminderDTO {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
     public Long id;
+    public String studentId;   // 所属学生，发送到期提醒时用于定位接收人
     public Long courseId;
     public String courseName;
     public String location;
@@ -9,9 +16,20 @@ public class ReminderDTO {
     public String timeSlot;
     public String courseDate;  // yyyy-MM-dd
     public String startTime;   // HH:mm:ss
-}
-
-
-
 
+    public ReminderDTO() {}
 
+    // 供JPQL构造器表达式使用，查询时直接生成DTO，无需再加载Course实体
+    public ReminderDTO(Long id, String studentId, Long courseId, String courseName, String location,
+                       String dayOfWeek, String timeSlot, LocalDate courseDate, LocalTime startTime) {
+        this.id = id;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.location = location;
+        this.dayOfWeek = dayOfWeek;
+        this.timeSlot = timeSlot;
+        this.courseDate = courseDate.toString();
+        this.startTime = startTime.format(TIME_FORMATTER);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.njupt_coursetable.controller.dto;
+
+import com.example.njupt_coursetable.model.Course;
+
+import java.util.Map;
+
+public class TimetableWeekDTO {
+    public int week;
+    public int days;                    // 网格列数，周一到周日
+    public int slots;                   // 网格行数，第1到第10节
+    public long[][][] grid;             // grid[day][slot]为该节次的课程ID，通常0或1个，时间冲突时有多个
+    public Map<Long, Course> courses;   // 该周的全部课程，按ID索引；星期或节次无法解析的课程不在网格中但也在这里
+}
@@ -0,0 +1,215 @@
+package com.example.njupt_coursetable.event;
+
+import com.example.njupt_coursetable.controller.dto.ChangeEventDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 课程和提醒变更的SSE广播
+ * 每个学生一个best-effort多播Sink，只在该学生有订阅者时存在，事件只发给数据所属学生的订阅者，
+ * 发布代价与其他学生的连接数无关；订阅者列表为写时复制数组，发布时不加锁。
+ * 每条事件只序列化一次；每个订阅者有独立的有界缓冲，客户端读得慢导致缓冲写满时，
+ * 丢弃其积压的事件，发送resync事件后结束该连接，由客户端重新拉取数据
+ */
+@Component
+public class ChangeEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBroadcaster.class);
+
+    private static final String COURSE_EVENT = "course";
+    private static final String REMINDER_EVENT = "reminder";
+    private static final String RESYNC_EVENT = "resync";
+
+    /**
+     * 多个线程同时发布时Sink返回FAIL_NON_SERIALIZED，此时自旋重试
+     */
+    private static final Sinks.EmitFailureHandler RETRY_NON_SERIALIZED =
+            (signalType, result) -> result == Sinks.EmitResult.FAIL_NON_SERIALIZED;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 心跳间隔，需小于客户端和中间代理的读超时
+     */
+    @Value("${app.events.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+
+    /**
+     * 每个订阅者最多积压的事件数
+     */
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    /**
+     * 单个连接的最长时间，到期后正常结束，客户端自动重连；需小于spring.mvc.async.request-timeout
+     */
+    @Value("${app.events.max-connection-duration:30m}")
+    private Duration maxConnectionDuration;
+
+    /**
+     * 客户端断线后的重连间隔
+     */
+    @Value("${app.events.retry:3s}")
+    private Duration retry;
+
+    private final ConcurrentHashMap<String, StudentSink> sinks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder overflows = new LongAdder();
+
+    private Disposable heartbeat;
+
+    @PostConstruct
+    public void startHeartbeat() {
+        ServerSentEvent<String> ping = ServerSentEvent.<String>builder().comment("heartbeat").build();
+        heartbeat = Flux.interval(heartbeatInterval)
+                .subscribe(tick -> sinks.values().forEach(student -> student.sink.emitNext(ping, RETRY_NON_SERIALIZED)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.dispose();
+        sinks.values().forEach(student -> student.sink.emitComplete(RETRY_NON_SERIALIZED));
+    }
+
+    /**
+     * 订阅某学生的变更事件流
+     * 首条事件为connected，客户端收到后应先做一次同步，再按后续事件增量刷新
+     * @param studentId 学生ID
+     * @return SSE事件流
+     */
+    public Flux<ServerSentEvent<String>> subscribe(String studentId) {
+        ServerSentEvent<String> connected = ServerSentEvent.<String>builder()
+                .event("connected")
+                .retry(retry)
+                .data("{}")
+                .build();
+        return Flux.defer(() -> acquire(studentId).sink.asFlux())
+                .doFinally(signal -> release(studentId))
+                .onBackpressureBuffer(bufferSize)
+                .onErrorResume(Exceptions::isOverflow, e -> {
+                    overflows.increment();
+                    logger.debug("Event subscriber fell behind by {} events, sending resync", bufferSize);
+                    return Flux.just(ServerSentEvent.<String>builder().event(RESYNC_EVENT).data("{}").build());
+                })
+                .take(maxConnectionDuration)
+                .startWith(connected);
+    }
+
+    @EventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        ChangeEventDTO change = new ChangeEventDTO();
+        change.type = event.getType().name();
+        change.id = event.getCourseId();
+        change.courseId = event.getCourseId();
+        change.weeks = event.getAffectedWeeks();
+        emit(event.getStudentId(), COURSE_EVENT, change);
+    }
+
+    /**
+     * 开课修改后通知选了该课且在线的学生，事件不带课程ID，客户端按周次刷新
+     */
+    @EventListener
+    public void onOfferingChanged(OfferingChangedEvent event) {
+        ChangeEventDTO change = new ChangeEventDTO();
+        change.type = CourseChangedEvent.ChangeType.UPDATED.name();
+        change.weeks = event.getAffectedWeeks();
+        ServerSentEvent<String> serialized = null;
+        for (String studentId : event.getStudentIds()) {
+            StudentSink student = sinks.get(studentId);
+            if (student != null) {
+                if (serialized == null) {
+                    serialized = serialize(COURSE_EVENT, change);
+                }
+                student.sink.emitNext(serialized, RETRY_NON_SERIALIZED);
+            }
+        }
+    }
+
+    @EventListener
+    public void onReminderChanged(ReminderChangedEvent event) {
+        ChangeEventDTO change = new ChangeEventDTO();
+        change.type = event.getType().name();
+        change.id = event.getReminderId();
+        change.courseId = event.getCourseId();
+        emit(event.getStudentId(), REMINDER_EVENT, change);
+    }
+
+    /**
+     * 当前订阅者数量
+     */
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * 因读得太慢被断开的订阅者累计数量
+     */
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    private void emit(String studentId, String name, ChangeEventDTO change) {
+        StudentSink student = sinks.get(studentId);
+        if (student == null) {
+            return;
+        }
+        // 订阅者恰好全部离开时best-effort Sink直接丢弃，不会抛异常
+        student.sink.emitNext(serialize(name, change), RETRY_NON_SERIALIZED);
+    }
+
+    private ServerSentEvent<String> serialize(String name, ChangeEventDTO change) {
+        try {
+            return ServerSentEvent.<String>builder()
+                    .event(name)
+                    .data(objectMapper.writeValueAsString(change))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 取得学生的Sink并登记一个订阅者
+     * 引用计数只在ConcurrentHashMap的compute中修改，与release互斥，
+     * 不会出现新订阅者拿到刚被移除的Sink
+     */
+    private StudentSink acquire(String studentId) {
+        subscribers.incrementAndGet();
+        return sinks.compute(studentId, (id, student) -> {
+            StudentSink acquired = student == null ? new StudentSink() : student;
+            acquired.refs++;
+            return acquired;
+        });
+    }
+
+    private void release(String studentId) {
+        subscribers.decrementAndGet();
+        sinks.computeIfPresent(studentId, (id, student) -> --student.refs == 0 ? null : student);
+    }
+
+    private static final class StudentSink {
+        final Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().directBestEffort();
+        int refs;   // 只在compute中读写
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.njupt_coursetable.event;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 课程变更事件
+ * 课程写入数据库并提交后发布，用于失效缓存、更新版本号等
+ */
+public class CourseChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final String studentId;             // 数据所属学生
+    private final ChangeType type;
+    private final Long courseId;                // 批量导入时为null
+    private final Set<Integer> affectedWeeks;   // 变更前后涉及的所有周次
+
+    public CourseChangedEvent(String studentId, ChangeType type, Long courseId, Set<Integer> affectedWeeks) {
+        this.studentId = studentId;
+        this.type = type;
+        this.courseId = courseId;
+        this.affectedWeeks = Collections.unmodifiableSet(affectedWeeks);
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Set<Integer> getAffectedWeeks() {
+        return affectedWeeks;
+    }
+}
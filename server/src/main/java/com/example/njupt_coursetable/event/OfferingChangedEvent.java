@@ -0,0 +1,35 @@
+package com.example.njupt_coursetable.event;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 课程目录中的开课信息变更事件
+ * 开课写入数据库并提交后发布一次，代替逐个学生的CourseChangedEvent：
+ * 按开课共用的课程详情只失效这一门，已缓存版本号的学生和在线订阅者据studentIds各自更新，
+ * 其余学生下次访问时本来就会重新加载
+ */
+public class OfferingChangedEvent {
+
+    private final long offeringId;
+    private final Set<String> studentIds;       // 选了该课的学生
+    private final Set<Integer> affectedWeeks;   // 变更前后涉及的所有周次
+
+    public OfferingChangedEvent(long offeringId, Set<String> studentIds, Set<Integer> affectedWeeks) {
+        this.offeringId = offeringId;
+        this.studentIds = Collections.unmodifiableSet(studentIds);
+        this.affectedWeeks = Collections.unmodifiableSet(affectedWeeks);
+    }
+
+    public long getOfferingId() {
+        return offeringId;
+    }
+
+    public Set<String> getStudentIds() {
+        return studentIds;
+    }
+
+    public Set<Integer> getAffectedWeeks() {
+        return affectedWeeks;
+    }
+}
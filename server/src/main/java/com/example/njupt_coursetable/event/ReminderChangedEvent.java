@@ -0,0 +1,76 @@
+package com.example.njupt_coursetable.event;
+
+import com.example.njupt_coursetable.model.Reminder;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 提醒变更事件
+ * 提醒创建或删除并提交后发布
+ */
+public class ReminderChangedEvent {
+
+    public enum ChangeType {
+        CREATED, DELETED
+    }
+
+    private final String studentId;    // 数据所属学生
+    private final ChangeType type;
+    private final Long reminderId;     // 批量操作时为null
+    private final Long courseId;
+    private final Collection<Reminder> created;   // 新建的提醒，删除事件为空
+    private final Collection<Long> deletedIds;    // 删除的提醒ID，创建事件为空
+
+    public ReminderChangedEvent(String studentId, ChangeType type, Long reminderId, Long courseId) {
+        this(studentId, type, reminderId, courseId, List.of(),
+                type == ChangeType.DELETED && reminderId != null ? List.of(reminderId) : List.of());
+    }
+
+    public ReminderChangedEvent(String studentId, ChangeType type, Long reminderId, Long courseId,
+                                Collection<Reminder> created) {
+        this(studentId, type, reminderId, courseId, created, List.of());
+    }
+
+    private ReminderChangedEvent(String studentId, ChangeType type, Long reminderId, Long courseId,
+                                 Collection<Reminder> created, Collection<Long> deletedIds) {
+        this.studentId = studentId;
+        this.type = type;
+        this.reminderId = reminderId;
+        this.courseId = courseId;
+        this.created = created;
+        this.deletedIds = deletedIds;
+    }
+
+    /**
+     * 批量删除某课程提醒的事件
+     * @param deletedIds 删除前查出的提醒ID，调度器据此逐个从时间轮中摘除
+     */
+    public static ReminderChangedEvent batchDeleted(String studentId, Long courseId, Collection<Long> deletedIds) {
+        return new ReminderChangedEvent(studentId, ChangeType.DELETED, null, courseId, List.of(), deletedIds);
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getReminderId() {
+        return reminderId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Collection<Reminder> getCreated() {
+        return created;
+    }
+
+    public Collection<Long> getDeletedIds() {
+        return deletedIds;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.njupt_coursetable.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 按接口记录每个请求的SQL语句数和实体加载数
+ * 指标名hibernate.request.statements和hibernate.request.entity.loads，按method和uri（路由模板）打标签
+ * 只统计请求线程上的查询，流式输出和响应式接口在其他线程上执行的查询不计入
+ */
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            record("hibernate.request.statements", "SQL statements executed per request",
+                    request.getMethod(), uri, RequestQueryStats.statements());
+            record("hibernate.request.entity.loads", "Entities loaded per request",
+                    request.getMethod(), uri, RequestQueryStats.entityLoads());
+        }
+    }
+
+    private void record(String name, String description, String method, String uri, long value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.njupt_coursetable.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * 统计当前请求执行的SQL语句数和加载的实体数
+ * 同时作为Hibernate的Interceptor和StatementInspector注册，计数保存在线程本地变量中，
+ * 由RequestQueryMetricsFilter在请求开始时清零、结束时记录
+ */
+public class RequestQueryStats extends EmptyInterceptor implements StatementInspector {
+
+    public static final RequestQueryStats INSTANCE = new RequestQueryStats();
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    private RequestQueryStats() {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTERS.get()[STATEMENTS]++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTERS.get()[ENTITY_LOADS]++;
+        return false;
+    }
+
+    /**
+     * 清零当前线程的计数
+     */
+    public static void reset() {
+        long[] counters = COUNTERS.get();
+        counters[STATEMENTS] = 0;
+        counters[ENTITY_LOADS] = 0;
+    }
+
+    public static long statements() {
+        return COUNTERS.get()[STATEMENTS];
+    }
+
+    public static long entityLoads() {
+        return COUNTERS.get()[ENTITY_LOADS];
+    }
+}
@@ -1,17 +1,22 @@
 package com.example.njupt_coursetable.model;
 
-import javax.persistence.*;
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-@Entity
-@Table(name = "courses")
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 接口中的课程
+ * 不再单独建表：由学生的选课记录（Enrollment）和所选开课（CourseOffering）组合而成，
+ * id为选课记录ID；也用作新建、修改和导入课程时的请求体
+ */
 public class Course {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
     private String courseName;    // 课程名
 
     private String location;      // 上课地点
@@ -34,6 +39,12 @@ public class Course {
     
     private boolean shouldReminder; // 是否需要提醒
 
+    // 上课周次，由weekRange和weekType解析得到
+    private Set<Integer> weeks = new HashSet<>();
+
+    // 最后修改时间（毫秒时间戳），用于增量同步
+    private Long updatedAt;
+
     // 默认构造函数
     public Course() {
     }
@@ -52,6 +63,7 @@ public class Course {
         this.property = property;
         this.remarks = remarks;
         this.weekType = "全周"; // 默认为全周
+        refreshWeeks();
     }
     
     // 带weekType参数的构造函数
@@ -68,6 +80,7 @@ public class Course {
         this.property = property;
         this.remarks = remarks;
         this.weekType = weekType;
+        refreshWeeks();
     }
 
     // Getters and Setters
@@ -101,6 +114,7 @@ public class Course {
 
     public void setWeekRange(String weekRange) {
         this.weekRange = weekRange;
+        refreshWeeks();
     }
 
     public String getDayOfWeek() {
@@ -159,6 +173,7 @@ public class Course {
     
     public void setWeekType(String weekType) {
         this.weekType = weekType;
+        refreshWeeks();
     }
     
     @JsonProperty("shouldReminder")
@@ -171,6 +186,58 @@ public class Course {
         this.shouldReminder = shouldReminder;
     }
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * 获取该课程覆盖的所有周次
+     * @return 只读的周次集合
+     */
+    @JsonIgnore
+    public Set<Integer> getWeeks() {
+        return Collections.unmodifiableSet(weeks);
+    }
+
+    /**
+     * 根据weekRange和weekType重新计算周次
+     */
+    private void refreshWeeks() {
+        Set<Integer> parsed = WeekRangeUtils.parseWeeks(weekRange, weekType);
+        if (!weeks.equals(parsed)) {
+            weeks.clear();
+            weeks.addAll(parsed);
+        }
+    }
+
+    /**
+     * 复制课程详情，填入某个学生的课程ID、提醒状态和修改时间
+     * 缓存中同一开课的课程详情由所有选课学生共用，返回前按学生复制一份
+     */
+    public Course copyFor(Long id, boolean shouldReminder, Long updatedAt) {
+        Course copy = new Course();
+        copy.id = id;
+        copy.courseName = courseName;
+        copy.location = location;
+        copy.weekRange = weekRange;
+        copy.dayOfWeek = dayOfWeek;
+        copy.timeSlot = timeSlot;
+        copy.teacherName = teacherName;
+        copy.contactInfo = contactInfo;
+        copy.property = property;
+        copy.remarks = remarks;
+        copy.weekType = weekType;
+        copy.shouldReminder = shouldReminder;
+        copy.weeks.addAll(weeks);
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     // 添加一些便捷方法
     public String getName() {
         return courseName;
@@ -0,0 +1,246 @@
+package com.example.njupt_coursetable.model;
+
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.*;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 开课记录（课程目录）
+ * 一门课由某位老师在某个时间、地点按某种周次开设，全校共用一份；
+ * 学生通过Enrollment选课，同一开课的所有学生共享这一行，修改开课信息只需写一行
+ */
+@Entity
+@Table(name = "course_offerings",
+        indexes = {
+                // 新建和导入课程时按课程名、老师和上课时间查找已有的开课，避免目录中出现重复
+                @Index(name = "idx_course_offerings_lookup", columnList = "courseName, teacherName, dayOfWeek, timeSlot"),
+                @Index(name = "idx_course_offerings_updated_at", columnList = "updated_at")
+        })
+public class CourseOffering {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String courseName;    // 课程名
+
+    private String location;      // 上课地点
+
+    private String weekRange;     // 上课周数，如"1-16周"
+
+    private String dayOfWeek;     // 星期几，如"周一"
+
+    private String timeSlot;      // 时间段，如"1-2节"
+
+    private String teacherName;   // 老师名字
+
+    private String contactInfo;   // 老师联系方式
+
+    private String property;      // 属性，如"必修"、"选修"
+
+    private String remarks;       // 备注
+
+    private String weekType;      // 周类型，如"单周"、"双周"、"全周"
+
+    // 上课周次索引，由weekRange和weekType解析得到，按周查询时走(week, offering_id)索引
+    @ElementCollection
+    @CollectionTable(name = "course_offering_weeks",
+            joinColumns = @JoinColumn(name = "offering_id"),
+            indexes = @Index(name = "idx_course_offering_weeks_week", columnList = "week, offering_id"))
+    @Column(name = "week", nullable = false)
+    private Set<Integer> weeks = new HashSet<>();
+
+    // 最后修改时间（毫秒时间戳），选了该课的学生增量同步时据此下发新的课程信息
+    @Column(name = "updated_at")
+    private Long updatedAt;
+
+    public CourseOffering() {
+    }
+
+    /**
+     * 按课程详情创建开课记录
+     * @param details 课程详情，id、提醒状态等学生自己的字段被忽略
+     */
+    public CourseOffering(Course details) {
+        copyDetails(details);
+    }
+
+    /**
+     * 用课程详情覆盖开课信息
+     */
+    public void copyDetails(Course details) {
+        this.courseName = details.getCourseName();
+        this.location = details.getLocation();
+        this.dayOfWeek = details.getDayOfWeek();
+        this.timeSlot = details.getTimeSlot();
+        this.teacherName = details.getTeacherName();
+        this.contactInfo = details.getContactInfo();
+        this.property = details.getProperty();
+        this.remarks = details.getRemarks();
+        this.weekRange = details.getWeekRange();
+        this.weekType = details.getWeekType();
+        refreshWeeks();
+    }
+
+    /**
+     * 课程详情是否与该开课完全相同，相同时新建课程直接选这门开课
+     */
+    public boolean sameDetails(Course details) {
+        return Objects.equals(courseName, details.getCourseName())
+                && Objects.equals(location, details.getLocation())
+                && Objects.equals(weekRange, details.getWeekRange())
+                && Objects.equals(dayOfWeek, details.getDayOfWeek())
+                && Objects.equals(timeSlot, details.getTimeSlot())
+                && Objects.equals(teacherName, details.getTeacherName())
+                && Objects.equals(contactInfo, details.getContactInfo())
+                && Objects.equals(property, details.getProperty())
+                && Objects.equals(remarks, details.getRemarks())
+                && Objects.equals(weekType, details.getWeekType());
+    }
+
+    /**
+     * 转为课程视图，只含开课信息，id和提醒状态由选课记录填写
+     */
+    public Course toCourse() {
+        Course course = new Course(courseName, location, weekRange, dayOfWeek, timeSlot,
+                teacherName, contactInfo, property, remarks, weekType);
+        course.setUpdatedAt(updatedAt);
+        return course;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getWeekRange() {
+        return weekRange;
+    }
+
+    public void setWeekRange(String weekRange) {
+        this.weekRange = weekRange;
+        refreshWeeks();
+    }
+
+    public String getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(String dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public void setTimeSlot(String timeSlot) {
+        this.timeSlot = timeSlot;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public void setTeacherName(String teacherName) {
+        this.teacherName = teacherName;
+    }
+
+    public String getContactInfo() {
+        return contactInfo;
+    }
+
+    public void setContactInfo(String contactInfo) {
+        this.contactInfo = contactInfo;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public void setProperty(String property) {
+        this.property = property;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public String getWeekType() {
+        return weekType;
+    }
+
+    public void setWeekType(String weekType) {
+        this.weekType = weekType;
+        refreshWeeks();
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * 写入数据库前刷新修改时间
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取该开课覆盖的所有周次
+     * @return 只读的周次集合
+     */
+    @JsonIgnore
+    public Set<Integer> getWeeks() {
+        return Collections.unmodifiableSet(weeks);
+    }
+
+    /**
+     * 根据weekRange和weekType重新计算周次索引
+     * 原地修改集合，保证Hibernate能跟踪到变化
+     */
+    private void refreshWeeks() {
+        Set<Integer> parsed = WeekRangeUtils.parseWeeks(weekRange, weekType);
+        if (!weeks.equals(parsed)) {
+            weeks.clear();
+            weeks.addAll(parsed);
+        }
+    }
+}
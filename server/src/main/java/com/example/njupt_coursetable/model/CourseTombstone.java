@@ -0,0 +1,38 @@
+package com.example.njupt_coursetable.model;
+
+import javax.persistence.*;
+
+/**
+ * 课程删除记录（墓碑）
+ * 课程被删除后保留其ID和删除时间，供客户端增量同步时得知哪些课程需要删除
+ */
+@Entity
+@Table(name = "course_tombstones",
+        indexes = @Index(name = "idx_course_tombstones_student_deleted_at", columnList = "student_id, deleted_at"))
+public class CourseTombstone {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "student_id", length = 32)
+    private String studentId;     // 课程所属学生
+
+    @Column(name = "deleted_at", nullable = false)
+    private long deletedAt;   // 删除时间（毫秒时间戳）
+
+    public CourseTombstone() {}
+
+    public CourseTombstone(Long courseId, String studentId, long deletedAt) {
+        this.courseId = courseId;
+        this.studentId = studentId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+    public String getStudentId() { return studentId; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
+    public long getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(long deletedAt) { this.deletedAt = deletedAt; }
+}
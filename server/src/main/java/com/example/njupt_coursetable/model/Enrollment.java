@@ -0,0 +1,96 @@
+package com.example.njupt_coursetable.model;
+
+import com.example.njupt_coursetable.utils.WeekRangeUtils;
+
+import javax.persistence.*;
+import java.util.Set;
+
+/**
+ * 选课记录：某个学生选了目录中的某门开课
+ * 只保存学生自己的状态（是否提醒），课程信息都在CourseOffering中；
+ * 接口中的课程即选课记录，课程ID就是选课记录的ID。
+ * 与旧版允许重复添加相同课程一致，同一学生可以多次选同一门开课
+ */
+@Entity
+@Table(name = "enrollments",
+        indexes = {
+                // 按学生查询全部课程、游标分页和流式导出，学生ID在前，每次只扫描该学生的选课
+                @Index(name = "idx_enrollments_student_id", columnList = "student_id, id"),
+                @Index(name = "idx_enrollments_student_updated_at", columnList = "student_id, updated_at"),
+                // 开课信息修改后查找选了该课的学生
+                @Index(name = "idx_enrollments_offering_id", columnList = "offering_id")
+        })
+public class Enrollment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false, length = 32)
+    private String studentId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "offering_id", nullable = false)
+    private CourseOffering offering;
+
+    @Column(name = "should_reminder", nullable = false)
+    private boolean shouldReminder;   // 是否需要提醒
+
+    // 最后修改时间（毫秒时间戳），只随选课本身的变化而变化
+    @Column(name = "updated_at")
+    private Long updatedAt;
+
+    public Enrollment() {
+    }
+
+    public Enrollment(String studentId, CourseOffering offering, boolean shouldReminder) {
+        this.studentId = studentId;
+        this.offering = offering;
+        this.shouldReminder = shouldReminder;
+    }
+
+    /**
+     * 转为接口中的课程：开课信息加上该学生的课程ID和提醒状态
+     * 修改时间取选课与开课两者中较晚的一个，与增量同步的判断一致
+     */
+    public Course toCourse() {
+        Course course = offering.toCourse();
+        course.setId(id);
+        course.setShouldReminder(shouldReminder);
+        Long offeringUpdatedAt = offering.getUpdatedAt();
+        if (updatedAt == null || offeringUpdatedAt != null && offeringUpdatedAt > updatedAt) {
+            course.setUpdatedAt(offeringUpdatedAt);
+        } else {
+            course.setUpdatedAt(updatedAt);
+        }
+        return course;
+    }
+
+    /**
+     * 所选开课覆盖的周次
+     * 直接由weekRange和weekType解析，不加载开课的周次集合
+     */
+    public Set<Integer> getWeeks() {
+        return WeekRangeUtils.parseWeeks(offering.getWeekRange(), offering.getWeekType());
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getStudentId() { return studentId; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
+    public CourseOffering getOffering() { return offering; }
+    public void setOffering(CourseOffering offering) { this.offering = offering; }
+    public boolean isShouldReminder() { return shouldReminder; }
+    public void setShouldReminder(boolean shouldReminder) { this.shouldReminder = shouldReminder; }
+    public Long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Long updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * 写入数据库前刷新修改时间
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+}
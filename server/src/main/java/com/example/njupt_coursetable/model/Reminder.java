@@ -1,21 +1,36 @@
 package com.example.njupt_coursetable.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reminders")
+@Table(name = "reminders",
+        indexes = {
+                // 即将到来的提醒按学生和日期范围查询并按日期、时间排序
+                @Index(name = "idx_reminders_student_course_date", columnList = "student_id, course_date, start_time"),
+                // 同一课程同一天只有一条提醒，也用于按课程和日期查找
+                @Index(name = "uk_reminders_course_id_course_date", columnList = "course_id, course_date", unique = true)
+        })
 public class Reminder {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 所属学生，与选课记录相同；冗余保存以便按学生查询提醒时不必连接选课表过滤
+    @Column(name = "student_id", length = 32)
+    @JsonIgnore
+    private String studentId;
+
+    // 提醒的课程即学生的选课记录，列名沿用course_id，与接口中的courseId一致
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
-    private Course course;
+    private Enrollment enrollment;
 
     @Column(name = "course_date", nullable = false)
     private LocalDate courseDate;
@@ -28,16 +43,22 @@ public class Reminder {
 
     public Reminder() {}
 
-    public Reminder(Course course, LocalDate courseDate, LocalTime startTime) {
-        this.course = course;
+    public Reminder(Enrollment enrollment, LocalDate courseDate, LocalTime startTime) {
+        this.studentId = enrollment.getStudentId();
+        this.enrollment = enrollment;
         this.courseDate = courseDate;
         this.startTime = startTime;
         this.createdAt = LocalDateTime.now();
     }
 
     public Long getId() { return id; }
-    public Course getCourse() { return course; }
-    public void setCourse(Course course) { this.course = course; }
+    public String getStudentId() { return studentId; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
+    @JsonIgnore
+    public Enrollment getEnrollment() { return enrollment; }
+    public void setEnrollment(Enrollment enrollment) { this.enrollment = enrollment; }
+    @JsonProperty("course")
+    public Course getCourse() { return enrollment.toCourse(); }
     public LocalDate getCourseDate() { return courseDate; }
     public void setCourseDate(LocalDate d) { this.courseDate = d; }
     public LocalTime getStartTime() { return startTime; }
@@ -0,0 +1,191 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Enrollment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 课程批量写入
+ * 每门课先在课程目录中查找详情完全相同的开课，没有时新建，再为学生写入选课记录；
+ * 主键使用IDENTITY生成，Hibernate无法对其批量插入，saveAll会逐行往返数据库，
+ * 这里直接用JDBC批处理写入，需在调用方的事务中执行
+ */
+@Repository
+public class CourseBulkWriter {
+
+    private static final String INSERT_OFFERING_SQL =
+            "INSERT INTO course_offerings (course_name, location, week_range, day_of_week, time_slot, teacher_name, " +
+            "contact_info, property, remarks, week_type, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_WEEK_SQL = "INSERT INTO course_offering_weeks (offering_id, week) VALUES (?, ?)";
+
+    private static final String INSERT_ENROLLMENT_SQL =
+            "INSERT INTO enrollments (student_id, offering_id, should_reminder, updated_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ENROLLMENT_WITH_ID_SQL =
+            "INSERT INTO enrollments (id, student_id, offering_id, should_reminder, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseOfferingRepository courseOfferingRepository;
+
+    /**
+     * 为某学生批量写入一组课程
+     * 插入后将选课记录的ID和修改时间回填到课程对象上
+     * @param studentId 所属学生
+     * @param courses 待写入的课程，courseName不能为空
+     * @return 写入的课程数
+     */
+    public int insertBatch(String studentId, List<Course> courses) {
+        if (courses.isEmpty()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+
+        // 同名课程的已有开课一次查出，批内新建的开课也加入候选，相同的课只建一条
+        Map<String, List<CourseOffering>> candidates = courseOfferingRepository
+                .findByCourseNameIn(courses.stream().map(Course::getCourseName).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.groupingBy(CourseOffering::getCourseName));
+        List<CourseOffering> created = new ArrayList<>();
+        List<Enrollment> enrollments = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            List<CourseOffering> sameName = candidates.computeIfAbsent(course.getCourseName(), name -> new ArrayList<>());
+            CourseOffering offering = sameName.stream()
+                    .filter(candidate -> candidate.sameDetails(course))
+                    .findFirst()
+                    .orElse(null);
+            if (offering == null) {
+                offering = new CourseOffering(course);
+                offering.setUpdatedAt(now);
+                sameName.add(offering);
+                created.add(offering);
+            }
+            Enrollment enrollment = new Enrollment(studentId, offering, course.isShouldReminder());
+            enrollment.setUpdatedAt(now);
+            enrollments.add(enrollment);
+        }
+        insertOfferings(created);
+        insertEnrollments(enrollments);
+
+        for (int i = 0; i < courses.size(); i++) {
+            courses.get(i).setId(enrollments.get(i).getId());
+            courses.get(i).setUpdatedAt(now);
+        }
+        return courses.size();
+    }
+
+    /**
+     * 批量插入开课及其周次，插入后回填生成的主键
+     * @param offerings 待插入的开课，updatedAt需已设置
+     */
+    public void insertOfferings(List<CourseOffering> offerings) {
+        if (offerings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_OFFERING_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (CourseOffering offering : offerings) {
+                    ps.setString(1, offering.getCourseName());
+                    ps.setString(2, offering.getLocation());
+                    ps.setString(3, offering.getWeekRange());
+                    ps.setString(4, offering.getDayOfWeek());
+                    ps.setString(5, offering.getTimeSlot());
+                    ps.setString(6, offering.getTeacherName());
+                    ps.setString(7, offering.getContactInfo());
+                    ps.setString(8, offering.getProperty());
+                    ps.setString(9, offering.getRemarks());
+                    ps.setString(10, offering.getWeekType());
+                    ps.setLong(11, offering.getUpdatedAt());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                // 生成的主键按插入顺序返回
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < offerings.size()) {
+                        offerings.get(i++).setId(keys.getLong(1));
+                    }
+                    if (i != offerings.size()) {
+                        throw new IllegalStateException("Expected " + offerings.size() + " generated keys but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+
+        List<Object[]> weekRows = new ArrayList<>();
+        for (CourseOffering offering : offerings) {
+            for (int week : offering.getWeeks()) {
+                weekRows.add(new Object[]{offering.getId(), week});
+            }
+        }
+        if (!weekRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_WEEK_SQL, weekRows);
+        }
+    }
+
+    /**
+     * 批量插入选课记录
+     * 已带ID的记录（迁移旧数据时保留原课程ID）按给定ID插入，其余插入后回填生成的主键
+     * @param enrollments 待插入的选课，所选开课需已有ID，updatedAt需已设置
+     */
+    public void insertEnrollments(List<Enrollment> enrollments) {
+        List<Object[]> withIds = new ArrayList<>();
+        List<Enrollment> generated = new ArrayList<>();
+        for (Enrollment enrollment : enrollments) {
+            if (enrollment.getId() != null) {
+                withIds.add(new Object[]{enrollment.getId(), enrollment.getStudentId(), enrollment.getOffering().getId(),
+                        enrollment.isShouldReminder(), enrollment.getUpdatedAt()});
+            } else {
+                generated.add(enrollment);
+            }
+        }
+        if (!withIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ENROLLMENT_WITH_ID_SQL, withIds);
+        }
+        if (generated.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ENROLLMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Enrollment enrollment : generated) {
+                    ps.setString(1, enrollment.getStudentId());
+                    ps.setLong(2, enrollment.getOffering().getId());
+                    ps.setBoolean(3, enrollment.isShouldReminder());
+                    ps.setLong(4, enrollment.getUpdatedAt());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < generated.size()) {
+                        generated.get(i++).setId(keys.getLong(1));
+                    }
+                    if (i != generated.size()) {
+                        throw new IllegalStateException("Expected " + generated.size() + " generated keys but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
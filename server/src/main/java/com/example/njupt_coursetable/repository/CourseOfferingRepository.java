@@ -0,0 +1,47 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CourseOfferingRepository extends JpaRepository<CourseOffering, Long> {
+
+    /**
+     * 按课程名、老师和上课时间查找开课，走idx_course_offerings_lookup索引
+     * 参数为null时匹配该列为NULL的开课
+     */
+    List<CourseOffering> findByCourseNameAndTeacherNameAndDayOfWeekAndTimeSlot(
+            String courseName, String teacherName, String dayOfWeek, String timeSlot);
+
+    /**
+     * 查询一组课程名下的全部开课，批量导入时一次取出候选
+     */
+    List<CourseOffering> findByCourseNameIn(Collection<String> courseNames);
+
+    /**
+     * 按主键游标分页浏览课程目录
+     */
+    @Query("SELECT o FROM CourseOffering o WHERE o.id > :afterId ORDER BY o.id")
+    List<CourseOffering> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 查找与课程详情完全相同的开课，没有时新建一条
+     * 不加唯一约束，并发新建同一门课时目录中可能出现两条相同的开课，不影响选课
+     */
+    default CourseOffering findOrCreate(Course details) {
+        return findByCourseNameAndTeacherNameAndDayOfWeekAndTimeSlot(details.getCourseName(),
+                details.getTeacherName(), details.getDayOfWeek(), details.getTimeSlot())
+                .stream()
+                .filter(offering -> offering.sameDetails(details))
+                .findFirst()
+                .orElseGet(() -> save(new CourseOffering(details)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.model.CourseTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CourseTombstoneRepository extends JpaRepository<CourseTombstone, Long> {
+
+    /**
+     * 查询某学生在某时间之后删除的课程ID
+     */
+    @Query("SELECT t.courseId FROM CourseTombstone t WHERE t.studentId = :studentId AND t.deletedAt > :since")
+    List<Long> findCourseIdsDeletedAfter(@Param("studentId") String studentId, @Param("since") long since);
+
+    /**
+     * 把升级前没有所属学生的删除记录归入指定学生
+     * @return 更新的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CourseTombstone t SET t.studentId = :studentId WHERE t.studentId IS NULL")
+    int backfillStudentId(@Param("studentId") String studentId);
+}
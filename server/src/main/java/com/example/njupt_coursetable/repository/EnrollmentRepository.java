@@ -0,0 +1,89 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.cache.EnrollmentRef;
+import com.example.njupt_coursetable.model.Enrollment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 选课记录查询
+ * 返回给客户端的课程需要开课信息，查询时一并连接course_offerings加载，避免逐条懒加载
+ */
+@Repository
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+
+    /**
+     * 查询某学生的全部选课，走(student_id, id)索引
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.offering WHERE e.studentId = :studentId ORDER BY e.id")
+    List<Enrollment> findByStudentIdOrderById(@Param("studentId") String studentId);
+
+    /**
+     * 按ID查询选课，不属于该学生时返回空
+     */
+    @EntityGraph(attributePaths = "offering")
+    Optional<Enrollment> findByIdAndStudentId(Long id, String studentId);
+
+    /**
+     * 根据周数查询某学生的选课
+     * 先按(student_id, id)索引取该学生的选课，再用course_offering_weeks主键(offering_id, week)判断周次，
+     * 代价与该学生的选课数成正比，与目录和全表大小无关
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.offering o JOIN o.weeks w " +
+            "WHERE e.studentId = :studentId AND w = :weekNumber ORDER BY e.id")
+    List<Enrollment> findByStudentIdAndWeekNumber(@Param("studentId") String studentId, @Param("weekNumber") int weekNumber);
+
+    /**
+     * 查询某学生所有需要提醒的选课
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.offering " +
+            "WHERE e.studentId = :studentId AND e.shouldReminder = TRUE ORDER BY e.id")
+    List<Enrollment> findByStudentIdAndShouldReminderTrue(@Param("studentId") String studentId);
+
+    /**
+     * 按主键游标分页查询某学生的选课（keyset分页）
+     * 只读取id大于afterId的记录，翻页代价与已翻过的页数无关
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.offering WHERE e.studentId = :studentId AND e.id > :afterId ORDER BY e.id")
+    List<Enrollment> findPageAfterId(@Param("studentId") String studentId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按主键顺序流式读取某学生的所有选课
+     * 必须在事务中调用，使用完毕后需关闭Stream
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.offering WHERE e.studentId = :studentId ORDER BY e.id")
+    Stream<Enrollment> streamByStudentIdOrderById(@Param("studentId") String studentId);
+
+    /**
+     * 查询某学生在某时间之后变化过的选课（用于增量同步）
+     * 选课本身修改或所选开课被修改都算变化
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.offering o " +
+            "WHERE e.studentId = :studentId AND (e.updatedAt > :since OR o.updatedAt > :since) ORDER BY e.id")
+    List<Enrollment> findChangedSince(@Param("studentId") String studentId, @Param("since") Long since);
+
+    /**
+     * 查询某学生全部选课的ID、所选开课和提醒状态，不连接开课表，供按周缓存组装课程
+     */
+    @Query("SELECT new com.example.njupt_coursetable.cache.EnrollmentRef(e.id, e.offering.id, e.shouldReminder, e.updatedAt) " +
+            "FROM Enrollment e WHERE e.studentId = :studentId ORDER BY e.id")
+    List<EnrollmentRef> findRefsByStudentId(@Param("studentId") String studentId);
+
+    /**
+     * 查询选了某门开课的学生ID，开课信息修改后据此通知这些学生
+     * 只读取student_id一列，走offering_id索引，不加载选课实体
+     */
+    @Query("SELECT DISTINCT e.studentId FROM Enrollment e WHERE e.offering.id = :offeringId")
+    List<String> findStudentIdsByOfferingId(@Param("offeringId") Long offeringId);
+}
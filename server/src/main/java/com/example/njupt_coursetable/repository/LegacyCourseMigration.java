@@ -0,0 +1,192 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.tenant.StudentId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 把旧版courses表中的课程迁移到课程目录和选课记录
+ * 旧版每个学生的每门课各占一行，详情相同的课合并为一条开课，每行旧课程对应一条选课记录并保留原ID，
+ * 提醒的course_id、删除记录和客户端本地保存的课程ID都无需改动。
+ * 迁移后旧表不再使用，可手动删除
+ */
+@Repository
+public class LegacyCourseMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyCourseMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseBulkWriter courseBulkWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 旧版courses表存在且有数据时执行迁移，调用方需保证选课表为空
+     * @return 迁移的课程数，没有旧数据时为0
+     */
+    public int migrate() {
+        long legacyCount = legacyCourseCount();
+        if (legacyCount < 0) {
+            return 0;
+        }
+        // 旧表为空时也要删除旧外键，否则新建的提醒仍受courses表约束
+        dropLegacyForeignKeys();
+        if (legacyCount == 0) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Map<List<String>, CourseOffering> offerings = new HashMap<>();
+        int[] migrated = {0};
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Enrollment> batch = new ArrayList<>(BATCH_SIZE);
+            List<CourseOffering> created = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            jdbcTemplate.query("SELECT * FROM courses ORDER BY id", rs -> {
+                // 更早的版本没有student_id、updated_at列，按默认学生和当前时间处理
+                Set<String> columns = columnNames(rs);
+                Course course = readCourse(rs);
+                String studentId = columns.contains("student_id") ? rs.getString("student_id") : null;
+                if (studentId == null) {
+                    studentId = StudentId.DEFAULT;
+                }
+                long updatedAt = columns.contains("updated_at") ? rs.getLong("updated_at") : 0;
+                if (updatedAt == 0) {
+                    updatedAt = now;
+                }
+
+                CourseOffering offering = offerings.get(detailsKey(course));
+                if (offering == null) {
+                    offering = new CourseOffering(course);
+                    offering.setUpdatedAt(updatedAt);
+                    offerings.put(detailsKey(course), offering);
+                    created.add(offering);
+                }
+                Enrollment enrollment = new Enrollment(studentId, offering, course.isShouldReminder());
+                enrollment.setId(course.getId());
+                enrollment.setUpdatedAt(updatedAt);
+                batch.add(enrollment);
+                if (batch.size() == BATCH_SIZE) {
+                    migrated[0] += flush(created, batch);
+                }
+            });
+            migrated[0] += flush(created, batch);
+        });
+
+        advanceEnrollmentIds();
+        logger.info("Migrated {} legacy courses into {} offerings in {} ms; tables courses and course_weeks are no longer used.",
+                migrated[0], offerings.size(), (System.nanoTime() - start) / 1_000_000);
+        return migrated[0];
+    }
+
+    /**
+     * @return 旧表中的课程数，旧表不存在时为-1
+     */
+    private long legacyCourseCount() {
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM courses", Long.class);
+            return count == null ? 0 : count;
+        } catch (DataAccessException e) {
+            // 全新数据库没有旧表
+            return -1;
+        }
+    }
+
+    private int flush(List<CourseOffering> created, List<Enrollment> batch) {
+        courseBulkWriter.insertOfferings(created);
+        courseBulkWriter.insertEnrollments(batch);
+        int size = batch.size();
+        created.clear();
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * 旧版reminders.course_id引用courses.id，迁移后改为引用选课记录；
+     * 删除旧外键，新外键由Hibernate在下次启动时补上
+     */
+    private void dropLegacyForeignKeys() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean mysql = metaData.getDatabaseProductName().toLowerCase().contains("mysql");
+            String table = metaData.storesUpperCaseIdentifiers() ? "REMINDERS" : "reminders";
+            Set<String> foreignKeys = new HashSet<>();
+            try (ResultSet keys = metaData.getImportedKeys(connection.getCatalog(), null, table)) {
+                while (keys.next()) {
+                    if ("courses".equalsIgnoreCase(keys.getString("PKTABLE_NAME"))) {
+                        foreignKeys.add(keys.getString("FK_NAME"));
+                    }
+                }
+            }
+            for (String foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE reminders DROP " + (mysql ? "FOREIGN KEY " : "CONSTRAINT ") + foreignKey);
+                logger.info("Dropped legacy foreign key {} from reminders to courses.", foreignKey);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 选课记录按原ID插入，MySQL会自动推进自增值，H2需要手动把自增起点移到最大ID之后
+     */
+    private void advanceEnrollmentIds() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (product != null && product.toLowerCase().contains("h2")) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM enrollments", Long.class);
+            jdbcTemplate.execute("ALTER TABLE enrollments ALTER COLUMN id RESTART WITH " + (maxId == null ? 1 : maxId + 1));
+        }
+    }
+
+    private static Course readCourse(ResultSet rs) throws SQLException {
+        Course course = new Course(rs.getString("course_name"), rs.getString("location"), rs.getString("week_range"),
+                rs.getString("day_of_week"), rs.getString("time_slot"), rs.getString("teacher_name"),
+                rs.getString("contact_info"), rs.getString("property"), rs.getString("remarks"), rs.getString("week_type"));
+        course.setId(rs.getLong("id"));
+        course.setShouldReminder(rs.getBoolean("should_reminder"));
+        return course;
+    }
+
+    private static Set<String> columnNames(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Set<String> columns = new HashSet<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnLabel(i).toLowerCase());
+        }
+        return columns;
+    }
+
+    private static List<String> detailsKey(Course course) {
+        return Arrays.asList(course.getCourseName(), course.getLocation(), course.getWeekRange(), course.getDayOfWeek(),
+                course.getTimeSlot(), course.getTeacherName(), course.getContactInfo(), course.getProperty(),
+                course.getRemarks(), course.getWeekType());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.example.njupt_coursetable.model.Course;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * 基于R2DBC的课程只读查询
+ * 与EnrollmentRepository查询同样的表，连接选课和开课组装课程，但不占用请求线程等待数据库
+ */
+@Repository
+public class ReactiveCourseRepository {
+
+    private static final String COURSE_COLUMNS =
+            "e.id, o.course_name, o.location, o.week_range, o.day_of_week, o.time_slot, o.teacher_name, " +
+            "o.contact_info, o.property, o.remarks, o.week_type, e.should_reminder, " +
+            "GREATEST(e.updated_at, o.updated_at) AS updated_at";
+
+    private static final String FROM_ENROLLMENTS = " FROM enrollments e JOIN course_offerings o ON o.id = e.offering_id ";
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    public Flux<Course> findByStudentId(String studentId) {
+        return reactiveDatabaseClient.sql("SELECT " + COURSE_COLUMNS + FROM_ENROLLMENTS +
+                        "WHERE e.student_id = :studentId ORDER BY e.id")
+                .bind("studentId", studentId)
+                .map((row, metadata) -> toCourse(row))
+                .all();
+    }
+
+    /**
+     * 按周次查询某学生的课程，与EnrollmentRepository.findByStudentIdAndWeekNumber相同
+     */
+    public Flux<Course> findByStudentIdAndWeekNumber(String studentId, int weekNumber) {
+        return reactiveDatabaseClient.sql("SELECT " + COURSE_COLUMNS + FROM_ENROLLMENTS +
+                        "JOIN course_offering_weeks w ON w.offering_id = o.id " +
+                        "WHERE e.student_id = :studentId AND w.week = :week ORDER BY e.id")
+                .bind("studentId", studentId)
+                .bind("week", weekNumber)
+                .map((row, metadata) -> toCourse(row))
+                .all();
+    }
+
+    public Flux<Course> findByStudentIdAndShouldReminderTrue(String studentId) {
+        return reactiveDatabaseClient.sql("SELECT " + COURSE_COLUMNS + FROM_ENROLLMENTS +
+                        "WHERE e.student_id = :studentId AND e.should_reminder = TRUE ORDER BY e.id")
+                .bind("studentId", studentId)
+                .map((row, metadata) -> toCourse(row))
+                .all();
+    }
+
+    /**
+     * 查询某学生某日期及之后的提醒，与ReminderRepository.findUpcomingDTOs结果相同
+     */
+    public Flux<ReminderDTO> findUpcomingReminders(String studentId, LocalDate date) {
+        return reactiveDatabaseClient.sql("SELECT r.id, r.student_id, r.course_id, o.course_name, o.location, " +
+                        "o.day_of_week, o.time_slot, r.course_date, r.start_time " +
+                        "FROM reminders r JOIN enrollments e ON e.id = r.course_id " +
+                        "JOIN course_offerings o ON o.id = e.offering_id " +
+                        "WHERE r.student_id = :studentId AND r.course_date >= :date ORDER BY r.course_date, r.start_time")
+                .bind("studentId", studentId)
+                .bind("date", date)
+                .map((row, metadata) -> new ReminderDTO(
+                        row.get("id", Long.class),
+                        row.get("student_id", String.class),
+                        row.get("course_id", Long.class),
+                        row.get("course_name", String.class),
+                        row.get("location", String.class),
+                        row.get("day_of_week", String.class),
+                        row.get("time_slot", String.class),
+                        row.get("course_date", LocalDate.class),
+                        row.get("start_time", LocalTime.class)))
+                .all();
+    }
+
+    private static Course toCourse(Row row) {
+        Course course = new Course();
+        course.setId(row.get("id", Long.class));
+        course.setCourseName(row.get("course_name", String.class));
+        course.setLocation(row.get("location", String.class));
+        course.setDayOfWeek(row.get("day_of_week", String.class));
+        course.setTimeSlot(row.get("time_slot", String.class));
+        course.setTeacherName(row.get("teacher_name", String.class));
+        course.setContactInfo(row.get("contact_info", String.class));
+        course.setProperty(row.get("property", String.class));
+        course.setRemarks(row.get("remarks", String.class));
+        course.setWeekType(row.get("week_type", String.class));
+        course.setWeekRange(row.get("week_range", String.class));
+        Boolean shouldReminder = row.get("should_reminder", Boolean.class);
+        course.setShouldReminder(shouldReminder != null && shouldReminder);
+        course.setUpdatedAt(row.get("updated_at", Long.class));
+        return course;
+    }
+}
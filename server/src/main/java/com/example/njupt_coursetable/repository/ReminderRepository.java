@@ -1,19 +1,97 @@
 package com.example.njupt_coursetable.repository;
 
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
 import com.example.njupt_coursetable.model.Reminder;
-import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.scheduler.ReminderTime;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReminderRepository extends JpaRepository<Reminder, Long> {
-    List<Reminder> findByCourse(Course course);
-    List<Reminder> findByCourseDateGreaterThanEqual(LocalDate date);
-    Optional<Reminder> findByCourseIdAndCourseDate(Long courseId, LocalDate date);
+    /**
+     * 按课程（选课记录）和日期查找提醒，走(course_id, course_date)唯一索引
+     * 同时加载选课和开课，返回给客户端时不会序列化未初始化的代理
+     */
+    @EntityGraph(attributePaths = {"enrollment", "enrollment.offering"})
+    Optional<Reminder> findByEnrollmentIdAndCourseDate(Long courseId, LocalDate date);
+
+    List<Reminder> findByEnrollmentIdAndCourseDateIn(Long courseId, Collection<LocalDate> dates);
+
+    /**
+     * 查询某课程在指定日期的提醒ID，批量删除前用于通知调度器
+     */
+    @Query("SELECT r.id FROM Reminder r WHERE r.enrollment.id = :courseId AND r.courseDate IN :dates")
+    List<Long> findIdsByCourseIdAndCourseDates(@Param("courseId") Long courseId, @Param("dates") Collection<LocalDate> dates);
+
+    /**
+     * 查询某课程的全部提醒ID
+     */
+    @Query("SELECT r.id FROM Reminder r WHERE r.enrollment.id = :courseId")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * 按ID批量删除提醒
+     * @return 删除的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Reminder r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID查询提醒，提醒不属于该学生时返回空
+     */
+    @EntityGraph(attributePaths = {"enrollment", "enrollment.offering"})
+    Optional<Reminder> findByIdAndStudentId(Long id, String studentId);
+
+    /**
+     * 查询某学生某日期及之后的提醒，并连接选课和开课表直接构造DTO
+     * 一次查询完成，避免逐条懒加载选课和开课产生N+1查询；走(student_id, course_date, start_time)索引
+     */
+    @Query("SELECT new com.example.njupt_coursetable.controller.dto.ReminderDTO(" +
+            "r.id, r.studentId, e.id, o.courseName, o.location, o.dayOfWeek, o.timeSlot, r.courseDate, r.startTime) " +
+            "FROM Reminder r JOIN r.enrollment e JOIN e.offering o " +
+            "WHERE r.studentId = :studentId AND r.courseDate >= :date " +
+            "ORDER BY r.courseDate, r.startTime")
+    List<ReminderDTO> findUpcomingDTOs(@Param("studentId") String studentId, @Param("date") LocalDate date);
+
+    /**
+     * 按ID批量查询提醒DTO，已删除的提醒不在结果中
+     */
+    @Query("SELECT new com.example.njupt_coursetable.controller.dto.ReminderDTO(" +
+            "r.id, r.studentId, e.id, o.courseName, o.location, o.dayOfWeek, o.timeSlot, r.courseDate, r.startTime) " +
+            "FROM Reminder r JOIN r.enrollment e JOIN e.offering o " +
+            "WHERE r.id IN :ids")
+    List<ReminderDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID游标分页查询某日期及之后提醒的上课时间，启动时装载调度器，只取三列
+     */
+    @Query("SELECT new com.example.njupt_coursetable.scheduler.ReminderTime(r.id, r.courseDate, r.startTime) " +
+            "FROM Reminder r " +
+            "WHERE r.courseDate >= :date AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<ReminderTime> findTimesAfterId(@Param("date") LocalDate date, @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * 把升级前没有所属学生的提醒归入指定学生
+     * @return 更新的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reminder r SET r.studentId = :studentId WHERE r.studentId IS NULL")
+    int backfillStudentId(@Param("studentId") String studentId);
 }
 
 
@@ -0,0 +1,24 @@
+package com.example.njupt_coursetable.scheduler;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 把到期提醒写入日志，用于本地开发和尚未接入推送服务时
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.dispatcher", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderDispatcher implements ReminderDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderDispatcher.class);
+
+    @Override
+    public void dispatch(ReminderDTO reminder) {
+        logger.info("Reminder due: {} at {} {} {} ({}), reminder id: {}",
+                reminder.courseName, reminder.courseDate, reminder.startTime,
+                reminder.location, reminder.timeSlot, reminder.id);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.njupt_coursetable.scheduler;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+
+/**
+ * 到期提醒的发送方式
+ * 由app.reminders.dispatcher选择实现：log（默认，写日志）或webhook（POST到app.reminders.webhook-url）
+ */
+public interface ReminderDispatcher {
+
+    /**
+     * 发送一条到期的提醒
+     * 在调度器的发送线程中调用，抛出的异常只记录日志，不会重试
+     * @param reminder 到期的提醒及其课程信息
+     */
+    void dispatch(ReminderDTO reminder);
+}
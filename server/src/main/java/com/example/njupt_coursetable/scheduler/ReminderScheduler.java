@@ -0,0 +1,224 @@
+package com.example.njupt_coursetable.scheduler;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.example.njupt_coursetable.event.ReminderChangedEvent;
+import com.example.njupt_coursetable.model.Reminder;
+import com.example.njupt_coursetable.repository.ReminderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 提醒调度器
+ * 启动时把今天及以后的提醒装入时间轮，之后只靠提醒变更事件增减，运行期间不轮询数据库。
+ * 无论启动装载还是运行中新建，提醒时间早于当前时间超过missed-grace的提醒都不进入时间轮。
+ * 每秒推进一次时间轮，到期的提醒按ID批量查出课程信息后交给ReminderDispatcher发送；
+ * 删除事件（包括批量删除）带有被删提醒的ID，按ID找到时间轮中的节点直接摘除
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private static final long TICK_MS = 1000;
+    private static final int LOAD_BATCH_SIZE = 10000;
+    private static final int DISPATCH_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private ReminderDispatcher reminderDispatcher;
+
+    /**
+     * 提前多久提醒
+     */
+    @Value("${app.reminders.lead-time:15m}")
+    private Duration leadTime;
+
+    /**
+     * 已过提醒时间但不超过该时长的提醒仍会补发，更早的跳过（启动装载和新建提醒都适用）
+     */
+    @Value("${app.reminders.missed-grace:10m}")
+    private Duration missedGrace;
+
+    /**
+     * 上课日期和时间所在的时区
+     */
+    @Value("${app.reminders.zone:Asia/Shanghai}")
+    private ZoneId zone;
+
+    private final TimingWheel wheel = new TimingWheel(currentTick());
+    private final Map<Long, TimingWheel.Entry> entries = new HashMap<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "reminder-ticker"));
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(
+            runnable -> daemon(runnable, "reminder-dispatch"));
+
+    private final LongAdder dispatched = new LongAdder();
+
+    /**
+     * 服务启动后装载提醒并开始计时
+     * 装载期间到达的变更事件照常处理，同一提醒重复加入时以后一次为准
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.nanoTime();
+        long skipBefore = skipBefore();
+        int loaded = 0;
+        long afterId = 0;
+        List<ReminderTime> page;
+        do {
+            page = reminderRepository.findTimesAfterId(LocalDate.now(zone), afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ReminderTime reminder : page) {
+                long fireTick = fireTick(reminder.courseDate, reminder.startTime);
+                if (fireTick >= skipBefore) {
+                    schedule(reminder.id, fireTick);
+                    loaded++;
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id;
+            }
+        } while (page.size() == LOAD_BATCH_SIZE);
+        logger.info("Loaded {} pending reminders into timing wheel in {} ms",
+                loaded, (System.nanoTime() - start) / 1_000_000);
+
+        ticker.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        dispatchExecutor.shutdownNow();
+    }
+
+    @EventListener
+    public void onReminderChanged(ReminderChangedEvent event) {
+        if (event.getType() == ReminderChangedEvent.ChangeType.CREATED) {
+            long skipBefore = skipBefore();
+            for (Reminder reminder : event.getCreated()) {
+                long fireTick = fireTick(reminder.getCourseDate(), reminder.getStartTime());
+                if (fireTick >= skipBefore) {
+                    schedule(reminder.getId(), fireTick);
+                }
+            }
+        } else {
+            cancel(event.getDeletedIds());
+        }
+    }
+
+    /**
+     * 时间轮中等待发送的提醒数
+     */
+    public synchronized int getPendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * 累计交给发送器的提醒数
+     */
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    private synchronized void schedule(long reminderId, long fireTick) {
+        TimingWheel.Entry previous = entries.remove(reminderId);
+        if (previous != null) {
+            wheel.remove(previous);
+        }
+        TimingWheel.Entry entry = new TimingWheel.Entry(reminderId, fireTick);
+        entries.put(reminderId, entry);
+        wheel.add(entry);
+    }
+
+    private synchronized void cancel(Collection<Long> reminderIds) {
+        for (Long reminderId : reminderIds) {
+            TimingWheel.Entry entry = entries.remove(reminderId);
+            if (entry != null) {
+                wheel.remove(entry);
+            }
+        }
+    }
+
+    private void tick() {
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(currentTick(), entry -> {
+                entries.remove(entry.reminderId);
+                due.add(entry.reminderId);
+            });
+        }
+        if (!due.isEmpty()) {
+            dispatchExecutor.execute(() -> dispatch(due));
+        }
+    }
+
+    private void dispatch(List<Long> due) {
+        for (int from = 0; from < due.size(); from += DISPATCH_BATCH_SIZE) {
+            List<Long> ids = due.subList(from, Math.min(from + DISPATCH_BATCH_SIZE, due.size()));
+            List<ReminderDTO> reminders;
+            try {
+                reminders = reminderRepository.findDTOsByIdIn(ids);
+            } catch (RuntimeException e) {
+                logger.error("Failed to load {} due reminders", ids.size(), e);
+                continue;
+            }
+            for (ReminderDTO reminder : reminders) {
+                try {
+                    reminderDispatcher.dispatch(reminder);
+                    dispatched.increment();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to dispatch reminder id {}", reminder.id, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 提醒时间早于该tick的提醒已错过太久，不再发送
+     */
+    private long skipBefore() {
+        return currentTick() - missedGrace.toMillis() / TICK_MS;
+    }
+
+    private long fireTick(LocalDate courseDate, LocalTime startTime) {
+        long fireAt = LocalDateTime.of(courseDate, startTime).minus(leadTime).atZone(zone).toInstant().toEpochMilli();
+        return Math.floorDiv(fireAt, TICK_MS);
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / TICK_MS;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.njupt_coursetable.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * 提醒的上课时间，调度器启动装载时只查询这三列
+ */
+public class ReminderTime {
+    public final long id;
+    public final LocalDate courseDate;
+    public final LocalTime startTime;
+
+    // 供JPQL构造器表达式使用
+    public ReminderTime(Long id, LocalDate courseDate, LocalTime startTime) {
+        this.id = id;
+        this.courseDate = courseDate;
+        this.startTime = startTime;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.njupt_coursetable.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * 共4层，每层256个槽：第0层每槽1个tick，第1层每槽256个tick，依此类推，
+ * 以1秒为tick时可覆盖约136年。每个槽是一个侵入式双向链表，加入和取消都是O(1)；
+ * 时间推进到高层槽的边界时，把该槽的条目重新放入低层（级联），到第0层后按tick到期。
+ * 非线程安全，由调用方加锁
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * 时间轮能表示的最大距离，更远的条目先放在最高层，级联时再重新计算
+     */
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * 时间轮中的条目
+     */
+    static final class Entry {
+        final long reminderId;
+        final long deadline;    // 到期的tick
+        private Entry prev;
+        private Entry next;
+        private boolean linked;
+
+        Entry(long reminderId, long deadline) {
+            this.reminderId = reminderId;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * slots[level][index]为该槽链表的哨兵节点
+     */
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param startTick 起始tick，早于或等于该tick的条目在下一个tick到期
+     */
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        for (Entry[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Entry head = new Entry(-1, -1);
+                head.prev = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    /**
+     * 加入条目，已过期的条目在下一个tick到期
+     */
+    void add(Entry entry) {
+        place(entry, currentTick + 1);
+        size++;
+    }
+
+    /**
+     * 取消条目，条目已到期或已取消时不做任何事
+     */
+    void remove(Entry entry) {
+        if (entry.linked) {
+            unlink(entry);
+            size--;
+        }
+    }
+
+    /**
+     * 推进到指定tick，依次交出每个tick到期的条目
+     * @param tick 目标tick，不大于当前tick时不做任何事
+     * @param expired 接收到期条目
+     */
+    void advanceTo(long tick, Consumer<Entry> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            cascade();
+            Entry head = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (head.next != head) {
+                Entry entry = head.next;
+                unlink(entry);
+                size--;
+                expired.accept(entry);
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 低层转完一圈时，把上一层当前槽的条目重新放入
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Entry head = slots[level][(int) ((currentTick >>> shift) & SLOT_MASK)];
+            Entry entry = head.next;
+            head.prev = head;
+            head.next = head;
+            while (entry != head) {
+                Entry next = entry.next;
+                entry.linked = false;
+                // 级联发生在处理当前tick之前，恰好在当前tick到期的条目放入第0层当前槽
+                place(entry, currentTick);
+                entry = next;
+            }
+        }
+    }
+
+    private void place(Entry entry, long earliestTick) {
+        long deadline = Math.max(entry.deadline, earliestTick);
+        long delta = Math.min(deadline - currentTick, MAX_DELTA);
+        deadline = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Entry head = slots[level][(int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+        entry.linked = true;
+    }
+
+    private static void unlink(Entry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+        entry.linked = false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.njupt_coursetable.scheduler;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 把到期提醒以JSON POST到配置的地址，由接收方转发为推送通知
+ * 请求异步发出，不阻塞调度器；失败只记录日志
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.dispatcher", havingValue = "webhook")
+public class WebhookReminderDispatcher implements ReminderDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookReminderDispatcher.class);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reminders.webhook-url}")
+    private URI webhookUrl;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    @Override
+    public void dispatch(ReminderDTO reminder) {
+        HttpRequest request = HttpRequest.newBuilder(webhookUrl)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(reminder)))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        logger.warn("Reminder webhook failed for reminder id {}: {}", reminder.id, error.getMessage());
+                    } else if (response.statusCode() >= 300) {
+                        logger.warn("Reminder webhook returned {} for reminder id {}", response.statusCode(), reminder.id);
+                    }
+                });
+    }
+
+    private byte[] toJson(ReminderDTO reminder) {
+        try {
+            return objectMapper.writeValueAsBytes(reminder);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
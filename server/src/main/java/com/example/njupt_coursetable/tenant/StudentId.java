@@ -0,0 +1,33 @@
+package com.example.njupt_coursetable.tenant;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.regex.Pattern;
+
+/**
+ * 标注在控制器参数上，注入当前请求所属学生的ID（取自X-Student-Id请求头）
+ * 课程、提醒等数据都按学生隔离，查询、缓存和版本号也都以学生ID为范围
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StudentId {
+
+    String HEADER = "X-Student-Id";
+
+    /**
+     * 配置了app.tenant.signing-key时，学生ID的签名通过该请求头携带
+     */
+    String TOKEN_HEADER = "X-Student-Token";
+
+    /**
+     * 未携带请求头时使用的学生ID，升级前的共享数据也归入该ID
+     */
+    String DEFAULT = "public";
+
+    /**
+     * 学生ID只允许字母、数字、下划线和连字符，会直接用作缓存键和ETag的一部分
+     */
+    Pattern FORMAT = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+}
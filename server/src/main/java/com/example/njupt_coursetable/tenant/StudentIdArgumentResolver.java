@@ -0,0 +1,57 @@
+package com.example.njupt_coursetable.tenant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 解析@StudentId参数
+ * 请求头格式不合法时返回400；未携带请求头时使用默认学生ID，
+ * 开启app.tenant.require-student-id后则同样返回400。
+ * X-Student-Id本身不是凭证：配置了app.tenant.signing-key后，请求必须携带学生ID和
+ * 与之匹配的X-Student-Token签名，缺少或签名不符时返回401，默认学生也不例外
+ */
+@Component
+public class StudentIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Value("${app.tenant.require-student-id:false}")
+    private boolean requireStudentId;
+
+    @Autowired
+    private StudentTokenVerifier studentTokenVerifier;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(StudentId.class) && parameter.getParameterType() == String.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        String studentId = webRequest.getHeader(StudentId.HEADER);
+        if (studentId == null || studentId.isEmpty()) {
+            if (studentTokenVerifier.isEnabled()) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing " + StudentId.HEADER + " header");
+            }
+            if (requireStudentId) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing " + StudentId.HEADER + " header");
+            }
+            return StudentId.DEFAULT;
+        }
+        if (!StudentId.FORMAT.matcher(studentId).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + StudentId.HEADER + " header");
+        }
+        if (studentTokenVerifier.isEnabled()
+                && !studentTokenVerifier.verify(studentId, webRequest.getHeader(StudentId.TOKEN_HEADER))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid " + StudentId.TOKEN_HEADER + " header");
+        }
+        return studentId;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.njupt_coursetable.tenant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * 校验学生ID的签名
+ * 签名为base64url(HMAC-SHA256(app.tenant.signing-key, 学生ID))，不带填充，
+ * 由掌握密钥的一方（如学校的统一认证）在学生登录后签发给App。
+ * 未配置密钥时不校验，X-Student-Id只用于区分数据，任何人都可以冒用他人的学生ID
+ */
+@Component
+public class StudentTokenVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public StudentTokenVerifier(@Value("${app.tenant.signing-key:}") String signingKey) {
+        this.key = signingKey.isEmpty() ? null : new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * @return 是否配置了签名密钥
+     */
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * 计算学生ID的签名
+     * @param studentId 学生ID
+     * @return 签名，未配置密钥时抛出IllegalStateException
+     */
+    public String sign(String studentId) {
+        if (key == null) {
+            throw new IllegalStateException("app.tenant.signing-key is not configured");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(studentId.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * 校验签名，按常量时间比较
+     * @param studentId 学生ID
+     * @param token 请求携带的签名，可为null
+     * @return 签名是否与学生ID匹配；未配置密钥时总是false
+     */
+    public boolean verify(String studentId, String token) {
+        if (key == null || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(studentId).getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
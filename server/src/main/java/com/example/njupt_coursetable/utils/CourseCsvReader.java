@@ -0,0 +1,159 @@
+package com.example.njupt_coursetable.utils;
+
+import com.example.njupt_coursetable.model.Course;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行读取CSV格式的课程
+ * 第一行为表头，列名与课程JSON字段名一致（courseName、weekRange等），列顺序不限；
+ * 字段可用双引号包裹，引号内允许逗号、换行，两个双引号表示一个双引号
+ */
+public class CourseCsvReader implements Iterator<Course>, Closeable {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int lineNumber;
+    private List<String> nextRow;
+
+    public CourseCsvReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String> header = readRow();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            // 去掉UTF-8 BOM
+            columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        if (!columns.containsKey("courseName")) {
+            throw new IllegalArgumentException("CSV header must contain courseName");
+        }
+        nextRow = readNonEmptyRow();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public Course next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        List<String> row = nextRow;
+        int rowLine = lineNumber;
+        try {
+            nextRow = readNonEmptyRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return toCourse(row, rowLine);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Course toCourse(List<String> row, int rowLine) {
+        String courseName = field(row, "courseName");
+        if (courseName == null) {
+            throw new IllegalArgumentException("Missing courseName at line " + rowLine);
+        }
+        Course course = new Course();
+        course.setCourseName(courseName);
+        course.setLocation(field(row, "location"));
+        course.setDayOfWeek(field(row, "dayOfWeek"));
+        course.setTimeSlot(field(row, "timeSlot"));
+        course.setTeacherName(field(row, "teacherName"));
+        course.setContactInfo(field(row, "contactInfo"));
+        course.setProperty(field(row, "property"));
+        course.setRemarks(field(row, "remarks"));
+        course.setShouldReminder(Boolean.parseBoolean(field(row, "shouldReminder")));
+        String weekType = field(row, "weekType");
+        course.setWeekType(weekType != null ? weekType : "全周");
+        course.setWeekRange(field(row, "weekRange"));
+        return course;
+    }
+
+    /**
+     * 取某列的值，列不存在或为空串时返回null
+     */
+    private String field(List<String> row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readNonEmptyRow() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+        } while (row != null && row.size() == 1 && row.get(0).trim().isEmpty());
+        return row;
+    }
+
+    /**
+     * 读取一条记录
+     * @return 字段列表，已到末尾时返回null
+     */
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (peek != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        row.add(field.toString());
+        return row;
+    }
+}
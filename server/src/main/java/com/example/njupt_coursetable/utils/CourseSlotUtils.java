@@ -0,0 +1,76 @@
+package com.example.njupt_coursetable.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 上课时间解析工具类
+ * 将"周一"、"1-2节"等描述解析为课表网格中的行列下标
+ */
+public final class CourseSlotUtils {
+
+    /**
+     * 一周的天数
+     */
+    public static final int DAYS = 7;
+
+    /**
+     * 每天的节数
+     */
+    public static final int SLOTS = 10;
+
+    private static final String[] WEEKDAYS = {"一", "二", "三", "四", "五", "六", "日"};
+
+    private static final Pattern SLOT_RANGE = Pattern.compile("(\\d+)\\s*[-~—–]\\s*(\\d+)");
+    private static final Pattern SINGLE_SLOT = Pattern.compile("(\\d+)");
+
+    private CourseSlotUtils() {
+    }
+
+    /**
+     * 解析星期几
+     * @param dayOfWeek 如"周一"、"星期三"、"周日"
+     * @return 周一为0，周日为6，无法解析时返回-1
+     */
+    public static int dayIndex(String dayOfWeek) {
+        if (dayOfWeek == null) {
+            return -1;
+        }
+        String day = dayOfWeek.replace("星期", "").replace("周", "").replace("天", "日").trim();
+        for (int i = 0; i < WEEKDAYS.length; i++) {
+            if (WEEKDAYS[i].equals(day)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 解析节次
+     * @param timeSlot 如"1-2节"、"第3节"、"5"
+     * @return {起始节, 结束节}，从1开始且不超过SLOTS；无法解析时返回null
+     */
+    public static int[] slotRange(String timeSlot) {
+        if (timeSlot == null) {
+            return null;
+        }
+        int start;
+        int end;
+        Matcher range = SLOT_RANGE.matcher(timeSlot);
+        if (range.find()) {
+            start = Integer.parseInt(range.group(1));
+            end = Integer.parseInt(range.group(2));
+        } else {
+            Matcher single = SINGLE_SLOT.matcher(timeSlot);
+            if (!single.find()) {
+                return null;
+            }
+            start = Integer.parseInt(single.group(1));
+            end = start;
+        }
+        if (start < 1 || end < start || end > SLOTS) {
+            return null;
+        }
+        return new int[]{start, end};
+    }
+}
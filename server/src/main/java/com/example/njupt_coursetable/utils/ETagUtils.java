@@ -0,0 +1,86 @@
+package com.example.njupt_coursetable.utils;
+
+import com.example.njupt_coursetable.tenant.StudentId;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag条件请求工具类
+ * 在查询数据库之前比较If-None-Match，命中时直接返回304。
+ * 响应中的ETag为弱ETag（W/前缀）：同一表示gzip压缩前后字节不同，
+ * Tomcat也不会压缩带强ETag的响应
+ */
+public final class ETagUtils {
+
+    private ETagUtils() {
+    }
+
+    /**
+     * 判断If-None-Match请求头是否与当前ETag匹配
+     * 按RFC 7232对If-None-Match使用弱比较，忽略W/前缀
+     * @param ifNoneMatch 请求头的值，可为null
+     * @param etag 当前资源的ETag（带引号）
+     * @return 匹配时返回true
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 同一资源另一种编码（如Smile）的ETag
+     * 响应中的弱ETag只表示内容语义相同，JSON和Smile按Accept内容协商选出，数据相同时弱比较也会匹配；
+     * 编码名加入ETag后，持有JSON副本的客户端请求Smile时不会得到304。
+     * 缓存按响应的Vary: Accept, X-Student-Id分别保存各编码和各学生的副本
+     * @param etag 资源的ETag（带引号）
+     * @param encoding 编码名
+     * @return 如"w3-5"变为"w3-5-smile"
+     */
+    public static String variant(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    /**
+     * 构造304响应
+     */
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(weak(etag))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, StudentId.HEADER)
+                .build();
+    }
+
+    /**
+     * 构造带ETag的200响应
+     * no-cache让客户端缓存响应但每次使用前都带ETag重新验证；
+     * 同一URL可按Accept返回JSON或Smile、按X-Student-Id返回不同学生的数据，
+     * Vary让HTTP缓存按这两个请求头分别保存
+     */
+    public static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok()
+                .eTag(weak(etag))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, StudentId.HEADER);
+    }
+
+    private static String weak(String etag) {
+        return "W/" + etag;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.njupt_coursetable.utils;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 上课周数解析工具类
+ * 将"1,3,5"、"1-16周"、"第6周"等周数描述解析为具体的周次集合
+ */
+public final class WeekRangeUtils {
+
+    /**
+     * 支持的最大周次
+     */
+    public static final int MAX_WEEK = 64;
+
+    private WeekRangeUtils() {
+    }
+
+    /**
+     * 解析上课周数
+     * 区间写法（如"1-16周"）会按周类型过滤单双周，逐个列出的周次原样保留
+     * @param weekRange 上课周数，如"1,3,5"、"1-16周"
+     * @param weekType 周类型，如"单周"、"双周"、"全周"，可为null
+     * @return 周次集合（1到MAX_WEEK），无法解析时返回空集合
+     */
+    public static Set<Integer> parseWeeks(String weekRange, String weekType) {
+        Set<Integer> weeks = new TreeSet<>();
+        if (weekRange == null || weekRange.isEmpty()) {
+            return weeks;
+        }
+
+        int parity = parityOf(weekType);
+        for (String token : weekRange.split("[,，、;；\\s]+")) {
+            String cleaned = token.replace("第", "").replace("周", "").trim();
+            if (cleaned.isEmpty()) {
+                continue;
+            }
+
+            String[] bounds = cleaned.split("[-~—–]");
+            if (bounds.length == 1) {
+                addWeek(weeks, parseIntOrZero(bounds[0]));
+            } else if (bounds.length == 2) {
+                int from = parseIntOrZero(bounds[0]);
+                int to = Math.min(parseIntOrZero(bounds[1]), MAX_WEEK);
+                for (int week = Math.max(from, 1); week <= to; week++) {
+                    if (parity < 0 || week % 2 == parity) {
+                        addWeek(weeks, week);
+                    }
+                }
+            }
+        }
+        return weeks;
+    }
+
+    /**
+     * 周类型对应的奇偶性
+     * @return 单周返回1，双周返回0，其余返回-1表示不过滤
+     */
+    private static int parityOf(String weekType) {
+        if ("单周".equals(weekType)) {
+            return 1;
+        }
+        if ("双周".equals(weekType)) {
+            return 0;
+        }
+        return -1;
+    }
+
+    private static void addWeek(Set<Integer> weeks, int week) {
+        if (week >= 1 && week <= MAX_WEEK) {
+            weeks.add(week);
+        }
+    }
+
+    private static int parseIntOrZero(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -7,14 +7,22 @@ USE coursetable;
 
 -- 清空所有数据
 DELETE FROM reminders;
-DELETE FROM courses;
+DELETE FROM enrollments;
+DELETE FROM course_offering_weeks;
+DELETE FROM course_offerings;
+DELETE FROM course_tombstones;
+
+-- 旧版的课程表已迁移到course_offerings和enrollments，一并删除，避免重启后再次迁移
+DROP TABLE IF EXISTS course_weeks;
+DROP TABLE IF EXISTS courses;
 
 -- 重置自增ID（可选，如果需要从1开始）
 ALTER TABLE reminders AUTO_INCREMENT = 1;
-ALTER TABLE courses AUTO_INCREMENT = 1;
+ALTER TABLE enrollments AUTO_INCREMENT = 1;
+ALTER TABLE course_offerings AUTO_INCREMENT = 1;
 
 -- 验证清空结果
 SELECT '数据已清空，请重启服务器以自动重新初始化数据' AS message;
-SELECT COUNT(*) AS remaining_courses FROM courses;
+SELECT COUNT(*) AS remaining_courses FROM enrollments;
 SELECT COUNT(*) AS remaining_reminders FROM reminders;
 
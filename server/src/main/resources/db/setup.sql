@@ -15,6 +15,7 @@ USE coursetable;
 
 -- 3. 如果需要重置数据库，执行以下命令：
 -- DROP TABLE IF EXISTS reminders;
+-- DROP TABLE IF EXISTS course_weeks;
 -- DROP TABLE IF EXISTS courses;
 -- 然后重启服务器，会自动重新创建表和数据
 
@@ -0,0 +1,64 @@
+package com.example.njupt_coursetable.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 学生表的容量上限和近似LRU淘汰
+ */
+class StudentLruMapTest {
+
+    @Test
+    void evictsLeastRecentlyUsedStudents() throws InterruptedException {
+        StudentLruMap<Integer> map = new StudentLruMap<>(32);
+        for (int i = 0; i < 32; i++) {
+            map.computeIfAbsent("s" + i, id -> 0);
+        }
+        Thread.sleep(1);
+        // s0到s3刚被访问过，淘汰时应保留
+        for (int i = 0; i < 4; i++) {
+            map.get("s" + i);
+        }
+        map.computeIfAbsent("new", id -> 0);
+
+        assertThat(map.size()).isLessThanOrEqualTo(32);
+        for (int i = 0; i < 4; i++) {
+            assertThat(map.get("s" + i)).isNotNull();
+        }
+        assertThat(map.get("new")).isNotNull();
+        assertThat(map.get("s4")).isNull();
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentInserts() throws Exception {
+        StudentLruMap<Integer> map = new StudentLruMap<>(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    map.computeIfAbsent(thread + "-" + i, id -> 0);
+                    map.get(thread + "-" + (i / 2));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // 淘汰时其他线程不等待，并发插入期间可能短暂超出容量，之后的插入会淘汰回容量以内
+        map.computeIfAbsent("last", id -> 0);
+        assertThat(map.size()).isLessThanOrEqualTo(1000);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.njupt_coursetable.repository;
+
+import com.example.njupt_coursetable.controller.dto.ReminderDTO;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.model.Reminder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReminderRepository.findUpcomingDTOs的查询次数
+ * 提醒分属多门课程，逐条懒加载选课和开课时语句数随提醒数增长；
+ * 连接查询直接构造DTO，无论多少条提醒都只执行一条语句
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ReminderRepositoryTest {
+
+    private static final String STUDENT = "b21010101";
+    private static final String OTHER_STUDENT = "b21010102";
+    private static final LocalDate TODAY = LocalDate.of(2025, 10, 13);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        String[] names = {"信号与系统", "数字信号处理", "通信原理", "微机原理与接口技术"};
+        String[] days = {"周一", "周二", "周三", "周四"};
+        for (int i = 0; i < names.length; i++) {
+            CourseOffering offering = entityManager.persist(new CourseOffering(new Course(names[i],
+                    "教4-10" + i, "1-16周", days[i], "1-2节", "王建华", "wjh@njupt.edu.cn", "必修", "")));
+            Enrollment enrollment = entityManager.persist(new Enrollment(STUDENT, offering, true));
+            Enrollment other = entityManager.persist(new Enrollment(OTHER_STUDENT, offering, true));
+            // 每门课程三条即将到来的提醒和一条已过期的提醒
+            for (int week = 0; week < 3; week++) {
+                entityManager.persist(new Reminder(enrollment, TODAY.plusDays(i + 7L * week), LocalTime.of(8, 0)));
+            }
+            entityManager.persist(new Reminder(enrollment, TODAY.minusDays(7 - i), LocalTime.of(8, 0)));
+            entityManager.persist(new Reminder(other, TODAY.plusDays(i), LocalTime.of(8, 0)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findUpcomingDTOsRunsOneStatement() {
+        List<ReminderDTO> upcoming = reminderRepository.findUpcomingDTOs(STUDENT, TODAY);
+
+        assertThat(upcoming).hasSize(12);
+        assertThat(upcoming).extracting(dto -> dto.courseName)
+                .contains("信号与系统", "数字信号处理", "通信原理", "微机原理与接口技术");
+        assertThat(upcoming).extracting(dto -> dto.courseDate).isSorted();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
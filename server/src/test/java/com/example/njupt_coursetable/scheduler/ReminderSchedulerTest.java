@@ -0,0 +1,84 @@
+package com.example.njupt_coursetable.scheduler;
+
+import com.example.njupt_coursetable.event.ReminderChangedEvent;
+import com.example.njupt_coursetable.event.ReminderChangedEvent.ChangeType;
+import com.example.njupt_coursetable.model.Course;
+import com.example.njupt_coursetable.model.CourseOffering;
+import com.example.njupt_coursetable.model.Enrollment;
+import com.example.njupt_coursetable.model.Reminder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 运行中新建的提醒按missed-grace过滤，删除事件从时间轮中摘除
+ */
+class ReminderSchedulerTest {
+
+    private static final String STUDENT = "b21010101";
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+    private static final Duration LEAD_TIME = Duration.ofMinutes(15);
+
+    private final Enrollment enrollment = new Enrollment(STUDENT, new CourseOffering(new Course("通信原理",
+            "教4-101", "1-16周", "周一", "1-2节", "王建华", "wjh@njupt.edu.cn", "必修", "")), true);
+
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ReminderScheduler();
+        ReflectionTestUtils.setField(scheduler, "leadTime", LEAD_TIME);
+        ReflectionTestUtils.setField(scheduler, "missedGrace", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(scheduler, "zone", ZONE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void skipsCreatedRemindersMissedBeyondGrace() {
+        LocalDateTime now = LocalDateTime.now(ZONE);
+        Reminder lastWeek = reminder(1, now.minusWeeks(1));
+        Reminder yesterday = reminder(2, now.minusDays(1));
+        // 提醒时间5分钟前刚过，仍在补发范围内
+        Reminder justMissed = reminder(3, now.plus(LEAD_TIME).minusMinutes(5));
+        Reminder tomorrow = reminder(4, now.plusDays(1));
+
+        scheduler.onReminderChanged(created(lastWeek, yesterday, justMissed, tomorrow));
+
+        assertThat(scheduler.getPendingCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cancelsDeletedReminders() {
+        LocalDateTime now = LocalDateTime.now(ZONE);
+        scheduler.onReminderChanged(created(reminder(1, now.plusDays(1)), reminder(2, now.plusDays(8)),
+                reminder(3, now.plusDays(15))));
+
+        scheduler.onReminderChanged(new ReminderChangedEvent(STUDENT, ChangeType.DELETED, 1L, 7L));
+        assertThat(scheduler.getPendingCount()).isEqualTo(2);
+
+        scheduler.onReminderChanged(ReminderChangedEvent.batchDeleted(STUDENT, 7L, List.of(2L, 3L, 99L)));
+        assertThat(scheduler.getPendingCount()).isZero();
+    }
+
+    private Reminder reminder(long id, LocalDateTime at) {
+        Reminder reminder = new Reminder(enrollment, at.toLocalDate(), at.toLocalTime());
+        ReflectionTestUtils.setField(reminder, "id", id);
+        return reminder;
+    }
+
+    private static ReminderChangedEvent created(Reminder... reminders) {
+        return new ReminderChangedEvent(STUDENT, ChangeType.CREATED, null, 7L, List.of(reminders));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.njupt_coursetable.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 时间轮的到期、取消和级联
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    void expiresEntriesAtTheirDeadline() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.add(new TimingWheel.Entry(1, START + 3));
+        wheel.add(new TimingWheel.Entry(2, START + 1));
+
+        assertThat(advance(wheel, START + 2)).containsExactly(2L);
+        assertThat(advance(wheel, START + 3)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.add(new TimingWheel.Entry(1, START - 3600));
+
+        assertThat(advance(wheel, START + 1)).containsExactly(1L);
+    }
+
+    @Test
+    void removedEntryNeverExpires() {
+        TimingWheel wheel = new TimingWheel(START);
+        TimingWheel.Entry entry = new TimingWheel.Entry(1, START + 10);
+        wheel.add(entry);
+        wheel.remove(entry);
+        wheel.remove(entry);
+
+        assertThat(wheel.size()).isZero();
+        assertThat(advance(wheel, START + 20)).isEmpty();
+    }
+
+    @Test
+    void cascadesEntriesFromHigherLevels() {
+        TimingWheel wheel = new TimingWheel(START);
+        // 分别落在第1层和第2层
+        wheel.add(new TimingWheel.Entry(1, START + 1000));
+        wheel.add(new TimingWheel.Entry(2, START + 70_000));
+
+        assertThat(advance(wheel, START + 999)).isEmpty();
+        assertThat(advance(wheel, START + 1000)).containsExactly(1L);
+        assertThat(advance(wheel, START + 69_999)).isEmpty();
+        assertThat(advance(wheel, START + 70_000)).containsExactly(2L);
+    }
+
+    private static List<Long> advance(TimingWheel wheel, long tick) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(tick, entry -> expired.add(entry.reminderId));
+        return expired;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.njupt_coursetable.tenant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 未配置签名密钥时按请求头区分学生，配置后学生ID必须带有匹配的签名
+ */
+class StudentIdArgumentResolverTest {
+
+    private static final String STUDENT = "B21010101";
+    private static final String KEY = "secret";
+    // printf '%s' B21010101 | openssl dgst -sha256 -hmac secret -binary | basenc --base64url | tr -d '='
+    private static final String TOKEN = "P5DPHgV3owBiC8CY2w09QzB3av9bCmOMxSOZPFlTzFE";
+
+    @Test
+    void usesHeaderWithoutSigningKey() {
+        StudentIdArgumentResolver resolver = resolver("");
+
+        assertThat(resolve(resolver, STUDENT, null)).isEqualTo(STUDENT);
+        assertThat(resolve(resolver, null, null)).isEqualTo(StudentId.DEFAULT);
+        assertStatus(() -> resolve(resolver, "b2101/0101", null), HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void requiresMatchingTokenWithSigningKey() {
+        StudentIdArgumentResolver resolver = resolver(KEY);
+
+        assertThat(resolve(resolver, STUDENT, TOKEN)).isEqualTo(STUDENT);
+        assertStatus(() -> resolve(resolver, STUDENT, null), HttpStatus.UNAUTHORIZED);
+        assertStatus(() -> resolve(resolver, "B21010102", TOKEN), HttpStatus.UNAUTHORIZED);
+        assertStatus(() -> resolve(resolver, null, null), HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void signsLikeOpenssl() {
+        assertThat(new StudentTokenVerifier(KEY).sign(STUDENT)).isEqualTo(TOKEN);
+        assertThat(new StudentTokenVerifier("").verify(STUDENT, TOKEN)).isFalse();
+    }
+
+    private static StudentIdArgumentResolver resolver(String signingKey) {
+        StudentIdArgumentResolver resolver = new StudentIdArgumentResolver();
+        ReflectionTestUtils.setField(resolver, "studentTokenVerifier", new StudentTokenVerifier(signingKey));
+        return resolver;
+    }
+
+    private static Object resolve(StudentIdArgumentResolver resolver, String studentId, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (studentId != null) {
+            request.addHeader(StudentId.HEADER, studentId);
+        }
+        if (token != null) {
+            request.addHeader(StudentId.TOKEN_HEADER, token);
+        }
+        return resolver.resolveArgument(null, null, new ServletWebRequest(request), null);
+    }
+
+    private static void assertStatus(Runnable call, HttpStatus status) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+    }
+}